@@ -7,118 +7,313 @@ import org.json.JSONObject;
 import persistence.Writable;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 // Represents an application with a name, deadline, category, required documents, progress, and status
+// The requirements of a loaded application can be left in the file until they are needed (see setRequirementLoader).
 // Sources:
 //     Parsing String to extract a date - https://stackoverflow.com/a/27580870
-
 public class Application implements Writable {
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
+    private static final ApplicationObserver[] NO_OBSERVERS = new ApplicationObserver[0];
     private String name;                                // application's name
-    private Date deadline;                              // the deadline of the application
-    private String category;                            // the category of the application
-    private List<Requirement> requiredDocuments;        // the list of the required documents for the application
+    private long deadline;                              // the deadline in milliseconds since the epoch, or NO_DEADLINE
+    private String deadlineText;                        // the deadline as entered, null if it reads as it is formatted
+    private String category;                            // the category of the application, interned
+    private Map<String, Requirement> requiredDocuments; // the required documents by name in the order added, or null
+    private List<Requirement> requiredDocumentsView;    // read-only list of the above, null when stale
+    private RequirementLoader requirementLoader;        // where the required documents are read from, null once read
     private int progress;                               // tracks the progress on the application (in percentages)
+    private int completedRequirements;                  // the number of fulfilled required documents
     private boolean status;                             // the status of the application: True is completed, False - not
-    private String strDeadline = "";
+    private boolean dirty;                              // whether it changed since it was last marked clean
+    private ApplicationObserver[] observers;            // lists that index this application by its fields
 
     // EFFECTS: constructs an application with a name, status == false, progress == 0 and no required documents
     public Application(String name) {
         this.name = name;
         status = false;
         progress = 0;
-        requiredDocuments = new ArrayList<Requirement>();
+        completedRequirements = 0;
+        deadline = NO_DEADLINE;
         category = "";
+        observers = NO_OBSERVERS;
+        dirty = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers an observer that is notified whenever the category or the deadline of this application changes
+    public void addObserver(ApplicationObserver observer) {
+        observers = Arrays.copyOf(observers, observers.length + 1);
+        observers[observers.length - 1] = observer;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying the given observer
+    public void removeObserver(ApplicationObserver observer) {
+        for (int i = 0; i < observers.length; i++) {
+            if (observers[i].equals(observer)) {
+                ApplicationObserver[] remaining = new ApplicationObserver[observers.length - 1];
+                System.arraycopy(observers, 0, remaining, 0, i);
+                System.arraycopy(observers, i + 1, remaining, i, remaining.length - i);
+                observers = remaining.length == 0 ? NO_OBSERVERS : remaining;
+                return;
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the given observer is notified of changes to this application
+    public boolean hasObserver(ApplicationObserver observer) {
+        for (ApplicationObserver next : observers) {
+            if (next.equals(observer)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // MODIFIES: this
     // EFFECTS: sets the deadline for the application, throws an exception if the date entered is not in the
-    // "mm-dd-yyyy hh:mm aa" format where hh-hours, mm - minutes, aa - AM or PM
+    // "mm-dd-yyyy hh:mm aa" format where hh-hours, mm - minutes, aa - AM or PM; nothing is logged, as deadlines
+    // are set this way while lists are read (see editDeadline)
     public void setDeadline(String deadline) throws ParseException {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MM-yy HH:mm aa");
         if (!(deadline.isEmpty())) {
-            this.deadline = dateFormat.parse(deadline);
-            strDeadline = deadline;
+            this.deadline = DeadlineFormat.parse(deadline);
+            deadlineText = deadline.equals(DeadlineFormat.format(this.deadline)) ? null : deadline;
+            dirty = true;
+            notifyDeadlineChanged();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the deadline the user entered like setDeadline(String) and logs the change
+    public void editDeadline(String deadline) throws ParseException {
+        setDeadline(deadline);
+        if (!(deadline.isEmpty())) {
+            EventLog.getInstance().logEvent(new Event(EventType.DEADLINE_SET, this, deadline));
         }
     }
 
     // MODIFIES: this
     // EFFECTS: sets the deadline for the application and parses it to String
     public void setDeadline(Date deadline) {
-        this.deadline = deadline;
-        strDeadline =  new SimpleDateFormat("dd-MM-yy HH:mm aa").format(deadline);
-        EventLog.getInstance().logEvent(new Event("Set the deadline " + getStrDeadline() + " for " + this.name));
+        this.deadline = deadline.getTime();
+        deadlineText = null;
+        dirty = true;
+        notifyDeadlineChanged();
+        EventLog.getInstance().logEvent(new Event(EventType.DEADLINE_SET, this, getStrDeadline()));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the deadline for the application to time, in milliseconds since the epoch, shown as text;
+    // a null text shows the deadline in the deadline format. Like setDeadline(String), nothing is logged
+    public void setDeadline(long time, String text) {
+        this.deadline = time;
+        deadlineText = text;
+        dirty = true;
+        notifyDeadlineChanged();
+    }
+
+    // EFFECTS: tells the observers that the deadline of this application has changed
+    private void notifyDeadlineChanged() {
+        for (ApplicationObserver observer : observers) {
+            observer.deadlineChanged(this);
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: sets and returns the category of the application
     public void setCategory(String categoryName) {
-        category = categoryName;
-        EventLog.getInstance().logEvent(new Event("Set category " + categoryName + " for " + this.name));
+        String oldCategory = category;
+        category = categoryName == null ? null : categoryName.intern();
+        dirty = true;
+        for (ApplicationObserver observer : observers) {
+            observer.categoryChanged(this, oldCategory);
+        }
+        EventLog.getInstance().logEvent(new Event(EventType.CATEGORY_SET, this, categoryName));
     }
 
     // MODIFIES: this
-    // EFFECTS: adds a new requirement to the list of required documents for the application
-    public void addRequirement(Requirement requirement) throws AlreadyExistsException {
-        for (Requirement req : requiredDocuments) {
-            if (req.getName() == requirement.getName()) {
+    // EFFECTS: makes the required documents of this application come from loader the first time they are needed
+    // instead of being added now; the status and progress are kept as they are until then
+    public void setRequirementLoader(RequirementLoader loader) {
+        requirementLoader = loader;
+    }
+
+    // EFFECTS: returns true if the required documents are in memory, false if they are still to be read
+    public boolean hasLoadedRequirements() {
+        return requirementLoader == null;
+    }
+
+    // EFFECTS: returns a copy of this application that is in no list, with copies of its required documents or the
+    // same loader if they are still to be read; nothing is logged and nothing is read
+    public Application copy() {
+        Application copy = new Application(name);
+        copy.deadline = deadline;
+        copy.deadlineText = deadlineText;
+        copy.category = category;
+        copy.requirementLoader = requirementLoader;
+        copy.progress = progress;
+        copy.completedRequirements = completedRequirements;
+        copy.status = status;
+        copy.dirty = dirty;
+        if (requiredDocuments != null) {
+            copy.requiredDocuments = new LinkedHashMap<String, Requirement>();
+            for (Requirement requirement : requiredDocuments.values()) {
+                Requirement copied = requirement.copy();
+                copied.setApplication(copy);
+                copy.requiredDocuments.put(copied.getName(), copied);
+            }
+        }
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the required documents are still to be read, reads them and adds them without logging any events,
+    // then updates the status and progress; throws RequirementAlreadyExistsException if two have the same name
+    private void loadRequirements() {
+        RequirementLoader loader = requirementLoader;
+        if (loader == null) {
+            return;
+        }
+        List<Requirement> loaded = loader.loadRequirements();
+        requirementLoader = null;
+        for (Requirement requirement : loaded) {
+            if (requiredDocuments == null) {
+                requiredDocuments = new LinkedHashMap<String, Requirement>();
+            }
+            if (requiredDocuments.putIfAbsent(requirement.getName(), requirement) != null) {
                 throw new RequirementAlreadyExistsException();
             }
+            requirement.setApplication(this);
+            if (requirement.getStatus()) {
+                completedRequirements++;
+            }
         }
-        requiredDocuments.add(requirement);
+        if (!loaded.isEmpty()) {
+            requiredDocumentsView = null;
+            trackStatusAndProgress();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds a new requirement to the list of required documents for the application
+    public void addRequirement(Requirement requirement) throws AlreadyExistsException {
+        loadRequirements();
+        if (requiredDocuments == null) {
+            requiredDocuments = new LinkedHashMap<String, Requirement>();
+        }
+        if (requiredDocuments.putIfAbsent(requirement.getName(), requirement) != null) {
+            throw new RequirementAlreadyExistsException();
+        }
+        requiredDocumentsView = null;
+        requirement.setApplication(this);
+        if (requirement.getStatus()) {
+            completedRequirements++;
+        }
+        dirty = true;
         trackStatusAndProgress();
-        EventLog.getInstance().logEvent(new Event("Added requirement " + requirement.getName() + " for " + this.name));
+        EventLog.getInstance().logEvent(new Event(EventType.REQUIREMENT_ADDED, this, requirement));
     }
 
     // MODIFIES: this
     // EFFECTS: removes a requirement to the list of required documents for the application
     public void removeRequirement(Requirement requirement) {
-        requiredDocuments.remove(requirement);
+        loadRequirements();
+        if (requiredDocuments != null && requiredDocuments.remove(requirement.getName(), requirement)) {
+            requiredDocumentsView = null;
+            requirement.setApplication(null);
+            if (requirement.getStatus()) {
+                completedRequirements--;
+            }
+            dirty = true;
+        }
         trackStatusAndProgress();
-        EventLog.getInstance().logEvent(
-                new Event("Removed requirement " + requirement.getName() + " for " + this.name));
+        EventLog.getInstance().logEvent(new Event(EventType.REQUIREMENT_REMOVED, this, requirement));
     }
 
     // MODIFIES: this
-    // EFFECTS: counts the number of completed requirements in the list of requirements and based on this
-    // calculates the overall progress on the application, changes the status to true if all the requirements are
-    // fulfilled
-    public void trackStatusAndProgress() {
-        int completedReqs = 0;
-        for (Requirement req:requiredDocuments) {
-            if (req.getStatus()) {
-                completedReqs++;
-            }
+    // EFFECTS: removes the requirement with the given name and returns it, returns null if there is no such requirement
+    public Requirement removeRequirement(String name) {
+        Requirement requirement = getRequirement(name);
+        if (requirement != null) {
+            removeRequirement(requirement);
+        }
+        return requirement;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: called by a requirement of this application when its status changes from the opposite of newStatus
+    // to newStatus; updates the number of completed requirements, the progress and the status
+    void requirementStatusChanged(boolean newStatus) {
+        if (newStatus) {
+            completedRequirements++;
+        } else {
+            completedRequirements--;
         }
-        if (completedReqs == requiredDocuments.size()) {
+        dirty = true;
+        trackStatusAndProgress();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: called by a requirement of this application when its uploaded document changes
+    void requirementChanged() {
+        dirty = true;
+    }
+
+    // EFFECTS: returns true if the application or one of its requirements changed since it was last marked clean;
+    // a new application starts out dirty, reading required documents that were left in a file does not count
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that the application as it is now has been saved
+    public void markClean() {
+        dirty = false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: calculates the overall progress on the application from the number of completed requirements,
+    // changes the status to true if all the requirements are fulfilled, which an application without requirements
+    // trivially is
+    public void trackStatusAndProgress() {
+        loadRequirements();
+        int totalReqs = requiredDocuments == null ? 0 : requiredDocuments.size();
+        if (completedRequirements == totalReqs) {
             status = true;
             progress = 100;
         } else {
             status = false;
-            progress = (completedReqs * 100) / requiredDocuments.size();
+            progress = (completedRequirements * 100) / totalReqs;
         }
     }
 
     // MODIFIES: this
     // EFFECTS: sets the status of the application
-    public void setStatus(Boolean newStatus) {
+    public void setStatus(boolean newStatus) {
         this.status = newStatus;
+        dirty = true;
     }
 
     // MODIFIES: this
     // EFFECTS: sets the progress of the application
     public void setProgress(int progress) {
         this.progress = progress;
+        dirty = true;
     }
 
     public String getName() {
         return name;
     }
 
-    public Boolean getStatus() {
+    public boolean getStatus() {
         return status;
     }
 
@@ -126,7 +321,18 @@ public class Application implements Writable {
         return progress;
     }
 
+    // EFFECTS: returns the deadline, or null if none was set
     public Date getDeadline() {
+        return hasDeadline() ? new Date(deadline) : null;
+    }
+
+    public boolean hasDeadline() {
+        return deadline != NO_DEADLINE;
+    }
+
+    // REQUIRES: hasDeadline()
+    // EFFECTS: returns the deadline in milliseconds since the epoch without creating a Date
+    public long getDeadlineTime() {
         return deadline;
     }
 
@@ -134,22 +340,35 @@ public class Application implements Writable {
         return category;
     }
 
+    // EFFECTS: returns a read-only list of the required documents in the order they were added
     public List<Requirement> getRequiredDocuments() {
-        return requiredDocuments;
+        loadRequirements();
+        if (requiredDocuments == null || requiredDocuments.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (requiredDocumentsView == null) {
+            requiredDocumentsView = Collections.unmodifiableList(new ArrayList<>(requiredDocuments.values()));
+        }
+        return requiredDocumentsView;
     }
 
+    // EFFECTS: returns req if it is one of the required documents of this application, null otherwise
     public Requirement getRequirement(Requirement req) {
-        Requirement reqToReturn = null;
-        for (Requirement requirement : getRequiredDocuments()) {
-            if (requirement == req) {
-                reqToReturn = requirement;
-            }
-        }
-        return reqToReturn;
+        return getRequirement(req.getName()) == req ? req : null;
     }
 
+    // EFFECTS: returns the required document with the given name, null if there is no such requirement
+    public Requirement getRequirement(String name) {
+        loadRequirements();
+        return requiredDocuments == null ? null : requiredDocuments.get(name);
+    }
+
+    // EFFECTS: returns the deadline as it was entered or formatted with the deadline pattern, "" if there is none
     public String getStrDeadline() {
-        return strDeadline;
+        if (!hasDeadline()) {
+            return "";
+        }
+        return deadlineText != null ? deadlineText : DeadlineFormat.format(deadline);
     }
 
     @Override
@@ -164,7 +383,7 @@ public class Application implements Writable {
         json.put("category", category);
         json.put("status", status);
         json.put("progress", progress);
-        json.put("deadline", strDeadline);
+        json.put("deadline", getStrDeadline());
         json.put("required documents", requirementsToJson());
         return json;
     }
@@ -173,7 +392,7 @@ public class Application implements Writable {
     private JSONArray requirementsToJson() {
         JSONArray jsonArray = new JSONArray();
 
-        for (Requirement req : this.requiredDocuments) {
+        for (Requirement req : getRequiredDocuments()) {
             jsonArray.put(req.toJson());
         }
 
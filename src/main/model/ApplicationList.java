@@ -7,83 +7,186 @@ import persistence.Writable;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 // Represents a list of all applications
-// Sources:
-//     Sorting by dates - https://stackoverflow.com/a/5927408
+// The list keeps indexes by name, by category and by deadline that are updated on every change, so lookups,
+// filtering and sorting never have to scan or re-sort the whole list
+
+public class ApplicationList implements Writable, ApplicationObserver {
+    private static final long NO_DEADLINE = Long.MAX_VALUE;   // sorts applications without deadlines last
 
-public class ApplicationList implements Writable {
     private List<Application> applicationList;  // list of the applications
+    private Map<String, Application> nameIndex; // applications in the list keyed by their names
+    private Map<String, List<Application>> categoryIndex; // applications in the list grouped by their categories
+    private TreeMap<DeadlineKey, Application> deadlineIndex; // applications in the list ordered by their deadlines
+    private Map<Application, DeadlineKey> deadlineKeys;       // the key each application is stored under above
+    private long nextInsertionId;                             // breaks ties between equal deadlines
 
     // EFFECTS: constructs an empty list of applications
     public ApplicationList() {
         applicationList = new ArrayList<Application>();
+        nameIndex = new HashMap<String, Application>();
+        categoryIndex = new HashMap<String, List<Application>>();
+        deadlineIndex = new TreeMap<DeadlineKey, Application>();
+        deadlineKeys = new HashMap<Application, DeadlineKey>();
+        nextInsertionId = 0;
     }
 
     // MODIFIES: this
     // EFFECTS: adds a new application to the list, throws exception if an app with the same name is already in the list
     public void addApplication(Application application) throws ApplicationAlreadyExistsException {
-        for (Application app : applicationList) {
-            if (app.getName() == application.getName()) {
-                throw new ApplicationAlreadyExistsException();
-            }
+        addApplication(application, applicationList.size());
+    }
+
+    // REQUIRES: 0 <= position <= the number of applications in the list
+    // MODIFIES: this
+    // EFFECTS: adds a new application to the list at the given position, throws exception if an app with the same
+    // name is already in the list
+    public void addApplication(Application application, int position) throws ApplicationAlreadyExistsException {
+        if (nameIndex.putIfAbsent(application.getName(), application) != null) {
+            throw new ApplicationAlreadyExistsException();
         }
-        applicationList.add(application);
-        EventLog.getInstance().logEvent(new Event("Added application: " + application.getName()));
+        index(application, position);
+        EventLog.getInstance().logEvent(new Event(EventType.APPLICATION_ADDED, this, application, position));
+    }
+
+    // EFFECTS: returns a copy of this list with a copy of each application in the same order (see Application.copy);
+    // nothing is logged, so the copy can be saved on another thread while this list keeps changing
+    public ApplicationList copy() {
+        ApplicationList copy = new ApplicationList();
+        for (Application application : applicationList) {
+            Application copied = application.copy();
+            copy.nameIndex.put(copied.getName(), copied);
+            copy.index(copied, copy.applicationList.size());
+        }
+        return copy;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds an application that is already in the name index to the list at the given position and to the
+    // other indexes
+    private void index(Application application, int position) {
+        applicationList.add(position, application);
+        addToCategory(application, application.getCategory());
+        addToDeadlines(application, nextInsertionId++);
+        application.addObserver(this);
     }
 
     // MODIFIES: this
     // EFFECTS: removes an application from the list
     public void removeApplication(Application app) {
-        applicationList.remove(app);
-        EventLog.getInstance().logEvent(new Event("Removed application: " + app.getName()));
+        if (nameIndex.remove(app.getName(), app)) {
+            applicationList.remove(app);
+            removeFromCategory(app, app.getCategory());
+            deadlineIndex.remove(deadlineKeys.remove(app));
+            app.removeObserver(this);
+        }
+        EventLog.getInstance().logEvent(new Event(EventType.APPLICATION_REMOVED, this, app));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves app from the group of its old category to the group of its new one
+    @Override
+    public void categoryChanged(Application app, String oldCategory) {
+        removeFromCategory(app, oldCategory);
+        addToCategory(app, app.getCategory());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves app to the position matching its new deadline, keeping its place among equal deadlines
+    @Override
+    public void deadlineChanged(Application app) {
+        DeadlineKey oldKey = deadlineKeys.get(app);
+        if (oldKey != null) {
+            deadlineIndex.remove(oldKey);
+            addToDeadlines(app, oldKey.insertionId);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: puts app into the deadline order under its current deadline and the given insertion id
+    private void addToDeadlines(Application app, long insertionId) {
+        long deadline = app.hasDeadline() ? app.getDeadlineTime() : NO_DEADLINE;
+        DeadlineKey key = new DeadlineKey(deadline, insertionId);
+        deadlineIndex.put(key, app);
+        deadlineKeys.put(app, key);
     }
 
-    // REQUIRES: all applications in the list must have deadlines
-    // EFFECTS: returns a sorted by their deadlines list of applications from the earliest date to the latest
+    // MODIFIES: this
+    // EFFECTS: adds app to the group of applications with the given category
+    private void addToCategory(Application app, String category) {
+        categoryIndex.computeIfAbsent(category, c -> new ArrayList<Application>()).add(app);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes app from the group of applications with the given category, drops the group once it is empty
+    private void removeFromCategory(Application app, String category) {
+        List<Application> group = categoryIndex.get(category);
+        if (group != null) {
+            group.remove(app);
+            if (group.isEmpty()) {
+                categoryIndex.remove(category);
+            }
+        }
+    }
+
+    // EFFECTS: returns a sorted by their deadlines list of applications from the earliest date to the latest,
+    // applications with the same deadline and applications without deadlines (which go last) keep the order
+    // they were added in
     public List<Application> sortByDeadlines() {
-        List<Application> listToSort = new ArrayList<>();
-        List<Application> appsWithoutDeadlines = new ArrayList<>();
-        for (Application app : getApplicationList()) {
-            if (app.getDeadline() != null) {
-                listToSort.add(app);
-            } else {
-                appsWithoutDeadlines.add(app);
+        return new ArrayList<>(deadlineIndex.values());
+    }
+
+    // REQUIRES: n >= 0
+    // EFFECTS: returns at most n applications with the earliest deadlines, from the earliest to the latest;
+    // applications without deadlines are not included
+    public List<Application> getNextDeadlines(int n) {
+        List<Application> nextDeadlines = new ArrayList<>();
+        for (Map.Entry<DeadlineKey, Application> entry : deadlineIndex.entrySet()) {
+            if (nextDeadlines.size() == n || entry.getKey().deadline == NO_DEADLINE) {
+                break;
             }
+            nextDeadlines.add(entry.getValue());
         }
-        Collections.sort(listToSort, Comparator.comparing(Application::getDeadline));
-        listToSort.addAll(appsWithoutDeadlines);
-        return listToSort;
+        return nextDeadlines;
     }
 
-    // REQUIRES: non-empty list of applications
-    // EFFECTS: returns a list of applications with the given category
+    // EFFECTS: returns a read-only view (not a copy) of the applications with the given category in the order they
+    // were put into it; the view should not be kept across later changes to the list
     public List<Application> filterByCategory(String category) {
-        List<Application> filteredList;
-        filteredList = new ArrayList<Application>();
-        for (Application app:applicationList) {
-            if (app.getCategory().equals(category)) {
-                filteredList.add(app);
-            }
+        List<Application> group = categoryIndex.get(category);
+        if (group == null) {
+            return Collections.emptyList();
         }
-        return filteredList;
+        return Collections.unmodifiableList(group);
+    }
+
+    // EFFECTS: returns the number of applications with the given category
+    public int countByCategory(String category) {
+        List<Application> group = categoryIndex.get(category);
+        return group == null ? 0 : group.size();
+    }
+
+    // EFFECTS: returns a read-only view of all categories used by at least one application in the list
+    public Set<String> getCategories() {
+        return Collections.unmodifiableSet(categoryIndex.keySet());
     }
 
     // REQUIRES: non-empty list of applications
     // EFFECTS: returns an application with the given name or nothing if there is no such application
     public Application searchByName(String name) {
-        for (Application app:applicationList) {
-            if (app.getName().equals(name)) {
-                return app;
-            }
-        }
-        return null;
+        return nameIndex.get(name);
     }
 
+    // EFFECTS: returns a read-only view of the applications in the order of the list;
+    // the list can only be changed through addApplication and removeApplication so the name index stays in sync
     public List<Application> getApplicationList() {
-        return applicationList;
+        return Collections.unmodifiableList(applicationList);
     }
 
     @Override
@@ -93,6 +196,23 @@ public class ApplicationList implements Writable {
         return json;
     }
 
+    // Represents the position of an application in the deadline order: by deadline, then by the time it was added
+    private static class DeadlineKey implements Comparable<DeadlineKey> {
+        private final long deadline;      // epoch milliseconds of the deadline or NO_DEADLINE
+        private final long insertionId;   // unique within the list
+
+        DeadlineKey(long deadline, long insertionId) {
+            this.deadline = deadline;
+            this.insertionId = insertionId;
+        }
+
+        @Override
+        public int compareTo(DeadlineKey other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : Long.compare(insertionId, other.insertionId);
+        }
+    }
+
     // EFFECTS: returns applications in this list as a JSON array
     private JSONArray applicationsToJson() {
         JSONArray jsonArray = new JSONArray();
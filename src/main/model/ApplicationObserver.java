@@ -0,0 +1,10 @@
+package model;
+
+// Represents an object that wants to be told when the indexed fields of an application change
+public interface ApplicationObserver {
+    // EFFECTS: reacts to the category of app being changed from oldCategory to app.getCategory()
+    void categoryChanged(Application app, String oldCategory);
+
+    // EFFECTS: reacts to the deadline of app being changed
+    void deadlineChanged(Application app);
+}
@@ -0,0 +1,209 @@
+package model;
+
+import java.text.DateFormatSymbols;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Date;
+import java.util.Locale;
+
+// Represents the "dd-MM-yy HH:mm aa" format application deadlines are entered and saved in
+// Parsing and formatting are thread-safe and, for deadlines written the usual way, neither build a SimpleDateFormat:
+// the text is scanned by hand and the time is worked out with java.time. The result is the same as what a lenient
+// SimpleDateFormat with the pattern gives: out-of-range fields roll over (32-01-23 is the 1st of February),
+// a two-digit year falls in the 100 years starting 80 years ago, any other year is taken as written, AM/PM has
+// to be there but the hour is read as HH, and text after it is ignored. Anything the scanner does not handle
+// (extra spaces, signs, years outside 1901-2036, unusual AM/PM words) is handed to a SimpleDateFormat, so even
+// unusual input parses exactly as it used to.
+public final class DeadlineFormat {
+    public static final String PATTERN = "dd-MM-yy HH:mm aa";
+    private static final long UNPARSED = Long.MIN_VALUE;
+    private static final int MAX_DIGITS = 4;
+    private static final int EARLIEST_YEAR = 1901;          // Date and java.time agree on time zones from here
+    private static final int LATEST_YEAR = 2036;            // until TimeZone's table of transitions runs out
+    private static final long CENTURY_REFRESH_MILLIS = 60 * 60 * 1000;
+    private static volatile CenturyStart centuryStart;
+    private static volatile Locale amPmLocale;
+    private static volatile String[] amPmStrings;
+
+    private DeadlineFormat() {
+    }
+
+    // EFFECTS: returns the time the deadline text stands for in milliseconds since the epoch, in the default time
+    // zone; throws ParseException if the text does not start with a deadline in the format
+    public static long parse(String text) throws ParseException {
+        long time = parseFast(text);
+        if (time != UNPARSED) {
+            return time;
+        }
+        return new SimpleDateFormat(PATTERN).parse(text).getTime();
+    }
+
+    // EFFECTS: returns the deadline formatted in the default time zone
+    public static String format(long time) {
+        LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        if (dateTime.getYear() < EARLIEST_YEAR || dateTime.getYear() > LATEST_YEAR) {
+            return new SimpleDateFormat(PATTERN).format(new Date(time));
+        }
+        String amPm = amPmStrings()[dateTime.getHour() < 12 ? 0 : 1];
+        StringBuilder builder = new StringBuilder(15 + amPm.length());
+        appendTwoDigits(builder, dateTime.getDayOfMonth());
+        builder.append('-');
+        appendTwoDigits(builder, dateTime.getMonthValue());
+        builder.append('-');
+        appendTwoDigits(builder, dateTime.getYear() % 100);
+        builder.append(' ');
+        appendTwoDigits(builder, dateTime.getHour());
+        builder.append(':');
+        appendTwoDigits(builder, dateTime.getMinute());
+        builder.append(' ');
+        return builder.append(amPm).toString();
+    }
+
+    // MODIFIES: builder
+    // EFFECTS: appends the value as two digits
+    private static void appendTwoDigits(StringBuilder builder, int value) {
+        builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
+    }
+
+    // EFFECTS: scans a deadline written as digits-digits-digits digits:digits AM/PM and returns its time,
+    // or UNPARSED if the text is written any other way
+    private static long parseFast(String text) {
+        Scanner scanner = new Scanner(text);
+        int day = scanner.number();
+        int month = scanner.field('-');
+        int yearStart = scanner.position;
+        int year = scanner.field('-');
+        boolean twoDigitYear = scanner.position - yearStart == 3;
+        int hour = scanner.field(' ');
+        int minute = scanner.field(':');
+        if (day < 0 || month < 0 || year < 0 || hour < 0 || minute < 0 || !scanner.amPm(' ')) {
+            return UNPARSED;
+        }
+        if (twoDigitYear) {
+            return toTimeInCentury(year, month, day, hour, minute);
+        }
+        return toTime(year, month, day, hour, minute);
+    }
+
+    // EFFECTS: returns the time of the given fields with a two-digit year, placing it in the 100 years that start
+    // 80 years ago, or UNPARSED if it falls outside the years the scanner handles
+    private static long toTimeInCentury(int year, int month, int day, int hour, int minute) {
+        CenturyStart start = centuryStart();
+        int fullYear = (start.year / 100) * 100 + year;
+        if (year < start.year % 100) {
+            fullYear += 100;
+        }
+        long time = toTime(fullYear, month, day, hour, minute);
+        return time != UNPARSED && time < start.time ? toTime(fullYear + 100, month, day, hour, minute) : time;
+    }
+
+    // EFFECTS: returns the time of the given fields in the default time zone, rolling out-of-range fields over
+    // the way a lenient calendar does, or UNPARSED if it falls outside the years the scanner handles
+    private static long toTime(int year, int month, int day, int hour, int minute) {
+        if (year < EARLIEST_YEAR - 1 || year > LATEST_YEAR) {
+            return UNPARSED;
+        }
+        LocalDateTime dateTime = LocalDateTime.of(year, 1, 1, 0, 0)
+                .plusMonths(month - 1L).plusDays(day - 1L).plusHours(hour).plusMinutes(minute);
+        if (dateTime.getYear() < EARLIEST_YEAR || dateTime.getYear() > LATEST_YEAR) {
+            return UNPARSED;
+        }
+        return ZonedDateTime.ofLocal(dateTime, ZoneId.systemDefault(), null)
+                .withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+    }
+
+    // EFFECTS: returns the AM and PM strings of the default locale, as SimpleDateFormat reads and writes them
+    private static String[] amPmStrings() {
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        String[] strings = amPmStrings;
+        if (strings == null || !locale.equals(amPmLocale)) {
+            strings = DateFormatSymbols.getInstance(locale).getAmPmStrings();
+            amPmStrings = strings;
+            amPmLocale = locale;
+        }
+        return strings;
+    }
+
+    // EFFECTS: returns the start of the 100 years two-digit years fall in: 80 years before now
+    private static CenturyStart centuryStart() {
+        long now = System.currentTimeMillis();
+        CenturyStart start = centuryStart;
+        if (start == null || now - start.computedAt > CENTURY_REFRESH_MILLIS) {
+            start = new CenturyStart(now);
+            centuryStart = start;
+        }
+        return start;
+    }
+
+    // Represents the start of the two-digit year window, worked out at one point in time
+    private static final class CenturyStart {
+        private final long computedAt;
+        private final long time;
+        private final int year;
+
+        CenturyStart(long now) {
+            ZonedDateTime start = Instant.ofEpochMilli(now).atZone(ZoneId.systemDefault()).minusYears(80);
+            computedAt = now;
+            time = start.toInstant().toEpochMilli();
+            year = start.getYear();
+        }
+    }
+
+    // Represents a position in the text being scanned
+    private static final class Scanner {
+        private final String text;
+        private int position;
+
+        Scanner(String text) {
+            this.text = text;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads one to MAX_DIGITS ASCII digits and returns their value, or -1 if there are none or too many
+        int number() {
+            int start = position;
+            int value = 0;
+            while (position < text.length() && text.charAt(position) >= '0' && text.charAt(position) <= '9') {
+                value = value * 10 + (text.charAt(position) - '0');
+                position++;
+            }
+            int digits = position - start;
+            return digits == 0 || digits > MAX_DIGITS ? -1 : value;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the given character and returns true if it is next, otherwise returns false
+        boolean literal(char expected) {
+            if (position < text.length() && text.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the separator and the number after it and returns the number, or -1 if either is missing
+        int field(char separator) {
+            return literal(separator) ? number() : -1;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the separator and returns true if the default locale's AM or PM string comes after it,
+        // ignoring case
+        boolean amPm(char separator) {
+            if (!literal(separator)) {
+                return false;
+            }
+            for (String amPm : amPmStrings()) {
+                if (!amPm.isEmpty() && text.regionMatches(true, position, amPm, 0, amPm.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
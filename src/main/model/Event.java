@@ -1,17 +1,25 @@
 package model;
 
-import java.util.Calendar;
+import java.io.File;
 import java.util.Date;
 
 
 /**
  * Represents an application manager event.
+ * Typed events keep the time they were logged at and the names of the
+ * objects they are about; the description is put together from the names
+ * the first time it is asked for. The objects themselves are only kept
+ * until the observers of the log have been told about the event.
  */
 // Class copy-pasted from the Alarm System application: https://github.students.cs.ubc.ca/CPSC210/AlarmSystem.git
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
-    private String description;
+    private static final String[] NO_ARGUMENTS = new String[0];
+    private final long timeLogged;          // milliseconds since the epoch
+    private final EventType type;
+    private final String[] names;           // the names of the arguments, taken when the event was created
+    private Object[] arguments;             // the objects the event is about, until the event is detached
+    private String description;             // null until it is first asked for
 
     /**
      * Creates an event with the given description
@@ -19,16 +27,53 @@ public class Event {
      * @param description  a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this.timeLogged = System.currentTimeMillis();
+        this.type = EventType.OTHER;
+        this.names = NO_ARGUMENTS;
+        this.arguments = NO_ARGUMENTS;
         this.description = description;
     }
 
+    /**
+     * Creates an event of the given type about the given objects
+     * with the current date/time stamp. The names of the objects are
+     * taken now; the description is derived from the type and the names
+     * when it is first asked for.
+     * @param type  the kind of change the event records
+     * @param arguments  the objects the event is about, as documented by the type
+     */
+    public Event(EventType type, Object... arguments) {
+        this.timeLogged = System.currentTimeMillis();
+        this.type = type;
+        this.arguments = arguments;
+        this.names = new String[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            names[i] = nameOf(arguments[i]);
+        }
+    }
+
+    /**
+     * Lets go of the objects this event is about, keeping only their names,
+     * so that the log does not keep removed applications reachable.
+     */
+    void detach() {
+        arguments = names;
+    }
+
     /**
      * Gets the date of this event (includes time).
      * @return  the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(timeLogged);
+    }
+
+    /**
+     * Gets the time of this event.
+     * @return  the time the event was logged at, in milliseconds since the epoch
+     */
+    public long getTime() {
+        return timeLogged;
     }
 
     /**
@@ -36,7 +81,143 @@ public class Event {
      * @return  the description of the event
      */
     public String getDescription() {
-        return description;
+        String result = description;
+        if (result == null) {
+            result = describe();
+            description = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the name of the application this event is about.
+     * @return  the name of the application, or null if the event is not about one
+     */
+    public String getApplicationName() {
+        switch (type) {
+            case APPLICATION_ADDED:
+            case APPLICATION_REMOVED:
+                return name(1);
+            case DEADLINE_SET:
+            case CATEGORY_SET:
+            case REQUIREMENT_ADDED:
+            case REQUIREMENT_REMOVED:
+                return name(0);
+            case STATUS_CHANGED:
+            case DOCUMENT_UPLOADED:
+            case DOCUMENT_DELETED:
+            case DOCUMENT_OPENED:
+                return names.length > 2 ? name(2) : null;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Puts the description of a typed event together from the names of its arguments.
+     * @return  the description of the event
+     */
+    private String describe() {
+        switch (type) {
+            case APPLICATION_ADDED:
+            case APPLICATION_REMOVED:
+                return describeListChange();
+            case DEADLINE_SET:
+            case CATEGORY_SET:
+                return describeApplicationChange();
+            case REQUIREMENT_ADDED:
+            case REQUIREMENT_REMOVED:
+                return describeRequirementChange();
+            case STATUS_CHANGED:
+                return "Changed status of " + name(0) + " to "
+                        + ("true".equals(name(1)) ? "completed" : "incomplete");
+            case DOCUMENT_UPLOADED:
+            case DOCUMENT_DELETED:
+            case DOCUMENT_OPENED:
+                return describeDocumentChange();
+            default:
+                return "";
+        }
+    }
+
+    /**
+     * Describes an application being added to or removed from a list.
+     * @return  the description of the event
+     */
+    private String describeListChange() {
+        return (type == EventType.APPLICATION_ADDED ? "Added" : "Removed") + " application: " + name(1);
+    }
+
+    /**
+     * Describes the deadline or the category of an application being set.
+     * @return  the description of the event
+     */
+    private String describeApplicationChange() {
+        return (type == EventType.DEADLINE_SET ? "Set the deadline " : "Set category ") + name(1) + " for " + name(0);
+    }
+
+    /**
+     * Describes a requirement being added to or removed from an application.
+     * @return  the description of the event
+     */
+    private String describeRequirementChange() {
+        return (type == EventType.REQUIREMENT_ADDED ? "Added" : "Removed") + " requirement " + name(1)
+                + " for " + name(0);
+    }
+
+    /**
+     * Describes a document of a requirement being uploaded, deleted or opened.
+     * @return  the description of the event
+     */
+    private String describeDocumentChange() {
+        String action = type == EventType.DOCUMENT_UPLOADED ? "Uploaded"
+                : type == EventType.DOCUMENT_DELETED ? "Deleted" : "Opened";
+        return action + " file " + name(1) + " for " + name(0);
+    }
+
+    /**
+     * Gets the name of one of the objects this event is about.
+     * @param index  the position of the argument
+     * @return  the name of the application, requirement or file at that position
+     */
+    private String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the name of an object an event is about.
+     * @param argument  the application, requirement, file or value
+     * @return  its name, the value as text, or null if there is no object
+     */
+    private static String nameOf(Object argument) {
+        if (argument == null) {
+            return null;
+        } else if (argument instanceof Application) {
+            return ((Application) argument).getName();
+        } else if (argument instanceof Requirement) {
+            return ((Requirement) argument).getName();
+        } else if (argument instanceof File) {
+            return ((File) argument).getName();
+        }
+        return String.valueOf(argument);
+    }
+
+    /**
+     * Gets the kind of change this event records.
+     * @return  the type of the event
+     */
+    public EventType getType() {
+        return type;
+    }
+
+    /**
+     * Gets one of the objects this event is about. Once the observers of the
+     * log have been told about the event, only the name of the object is left.
+     * @param index  the position of the argument as documented by the event type
+     * @return  the argument at the given position, or its name
+     */
+    public Object getArgument(int index) {
+        return arguments[index];
     }
 
     @Override
@@ -49,16 +230,17 @@ public class Event {
         }
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged) && this.description.equals(otherEvent.description));
+        return (this.timeLogged == otherEvent.timeLogged
+                && this.getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * getDate().hashCode() + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
@@ -0,0 +1,248 @@
+package model;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a snapshot of the event log that can be queried by time range,
+ * event type and application name without looking at every event.
+ * Events are kept in the order they were logged in. Their timestamps are
+ * almost, but not strictly, increasing (threads race and clocks are adjusted),
+ * so time ranges are found by binary search over the running maximum and the
+ * running minimum from the end, which are monotonic, and the few events in
+ * the range found that are out of order are filtered out while iterating.
+ * The type and application indexes are only built by the first query that
+ * needs them.
+ */
+final class EventIndex {
+    private static final int[] NONE = new int[0];
+    private final Event[] events;
+    private final long[] maxTimeUpTo;       // the latest timestamp among events 0..i
+    private final long[] minTimeFrom;       // the earliest timestamp among events i..end
+    private final long headSequence;        // the state of the log the snapshot was taken at
+    private final long tailSequence;
+    private volatile Map<EventType, int[]> byType;
+    private volatile Map<String, int[]> byApplication;
+
+    /**
+     * Creates an index over the given events.
+     * @param events  the events in the order they were logged in
+     * @param headSequence  the first sequence number of the log when the events were copied
+     * @param tailSequence  the next sequence number of the log when the events were copied
+     */
+    EventIndex(Event[] events, long headSequence, long tailSequence) {
+        this.events = events;
+        this.headSequence = headSequence;
+        this.tailSequence = tailSequence;
+        maxTimeUpTo = new long[events.length];
+        minTimeFrom = new long[events.length];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < events.length; i++) {
+            max = Math.max(max, events[i].getTime());
+            maxTimeUpTo[i] = max;
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = events.length - 1; i >= 0; i--) {
+            min = Math.min(min, events[i].getTime());
+            minTimeFrom[i] = min;
+        }
+    }
+
+    /**
+     * Checks whether this snapshot still shows everything in the log.
+     * @param head  the current first sequence number of the log
+     * @param tail  the current next sequence number of the log
+     * @return  true if nothing was logged or cleared since the snapshot was taken
+     */
+    boolean isCurrent(long head, long tail) {
+        return head == headSequence && tail == tailSequence;
+    }
+
+    /**
+     * Finds the matching events lazily, oldest first.
+     * @param from  the earliest time to include, in milliseconds since the epoch
+     * @param to  the latest time to include, in milliseconds since the epoch
+     * @param type  the type of events to include, or null for every type
+     * @param applicationName  the application the events must be about, or null for any
+     * @return  an iterator over the matching events
+     */
+    Iterator<Event> iterator(long from, long to, EventType type, String applicationName) {
+        int lo = firstIndex(maxTimeUpTo, from, false);
+        int hi = firstIndex(minTimeFrom, to, true);
+        int[] positions = null;
+        if (applicationName != null) {
+            positions = byApplication().getOrDefault(applicationName, NONE);
+        } else if (type != null) {
+            positions = byType().getOrDefault(type, NONE);
+        }
+        return new Matches(positions, lo, hi, from, to, type, applicationName);
+    }
+
+    /**
+     * Binary searches a monotonic array of timestamps.
+     * @param times  the non-decreasing timestamps to search
+     * @param time  the time to look for
+     * @param after  whether to find the first timestamp after time rather than at or after it
+     * @return  the index of the first timestamp found, or the length of the array if there is none
+     */
+    private static int firstIndex(long[] times, long time, boolean after) {
+        int lo = 0;
+        int hi = times.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < time || (after && times[mid] == time)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Gets the positions of the events of each type, building them on first use.
+     * @return  the sorted positions of the events of each type
+     */
+    private Map<EventType, int[]> byType() {
+        Map<EventType, int[]> result = byType;
+        if (result == null) {
+            Map<EventType, Positions> positions = new EnumMap<EventType, Positions>(EventType.class);
+            for (int i = 0; i < events.length; i++) {
+                positions.computeIfAbsent(events[i].getType(), key -> new Positions()).add(i);
+            }
+            result = new EnumMap<EventType, int[]>(EventType.class);
+            for (Map.Entry<EventType, Positions> entry : positions.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().toArray());
+            }
+            byType = result;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the positions of the events about each application, building them on first use.
+     * @return  the sorted positions of the events about each application
+     */
+    private Map<String, int[]> byApplication() {
+        Map<String, int[]> result = byApplication;
+        if (result == null) {
+            Map<String, Positions> positions = new HashMap<String, Positions>();
+            for (int i = 0; i < events.length; i++) {
+                String name = events[i].getApplicationName();
+                if (name != null) {
+                    positions.computeIfAbsent(name, key -> new Positions()).add(i);
+                }
+            }
+            result = new HashMap<String, int[]>();
+            for (Map.Entry<String, Positions> entry : positions.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().toArray());
+            }
+            byApplication = result;
+        }
+        return result;
+    }
+
+    /**
+     * Represents a growing list of event positions.
+     */
+    private static final class Positions {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = position;
+        }
+
+        int[] toArray() {
+            int[] result = new int[size];
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    /**
+     * Represents an iterator that walks either a range of the snapshot or the
+     * positions of an index that fall in that range, and skips events that
+     * do not match every condition.
+     */
+    private final class Matches implements Iterator<Event> {
+        private final int[] positions;      // the index walked, or null to walk the snapshot directly
+        private final int end;
+        private final long from;
+        private final long to;
+        private final EventType type;
+        private final String applicationName;
+        private int cursor;
+        private Event next;
+
+        Matches(int[] positions, int lo, int hi, long from, long to, EventType type, String applicationName) {
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.type = type;
+            this.applicationName = applicationName;
+            if (positions == null) {
+                cursor = lo;
+                end = hi;
+            } else {
+                cursor = lowerBound(positions, lo);
+                end = lowerBound(positions, hi);
+            }
+            advance();
+        }
+
+        private int lowerBound(int[] sorted, int value) {
+            int lo = 0;
+            int hi = sorted.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (sorted[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void advance() {
+            next = null;
+            while (cursor < end && next == null) {
+                Event candidate = events[positions == null ? cursor : positions[cursor]];
+                cursor++;
+                if (matches(candidate)) {
+                    next = candidate;
+                }
+            }
+        }
+
+        private boolean matches(Event event) {
+            return event.getTime() >= from && event.getTime() <= to
+                    && (type == null || event.getType() == type)
+                    && (applicationName == null || applicationName.equals(event.getApplicationName()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Event next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Event result = next;
+            advance();
+            return result;
+        }
+    }
+}
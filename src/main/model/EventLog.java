@@ -1,27 +1,52 @@
 package model;
 
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a log of application manager events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The log keeps at most a fixed number of the latest events in a ring buffer
+ * that any number of threads can log to without locking; what happens to
+ * the oldest events once it is full is decided by the overflow policy.
  */
 // Class copy-pasted from the Alarm System application: https://github.students.cs.ubc.ca/CPSC210/AlarmSystem.git
 public class EventLog implements Iterable<Event> {
+    /** the number of events kept by default */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
     /** the only EventLog in the system (Singleton Design Pattern) */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    private static volatile EventLog theLog;
+    private volatile Ring ring;
+    private volatile OverflowPolicy policy;
+    private volatile EventObserver spill;   // where evicted events go under SPILL_TO_DISK
+    private volatile EventIndex index;      // the index of the last complete snapshot queried, if any
+    private List<EventObserver> observers;
+
+    /**
+     * What happens to the oldest event when an event is logged to a full log.
+     */
+    public enum OverflowPolicy {
+        /** the oldest event is forgotten */
+        DROP_OLDEST,
+        /** the oldest event is handed to the spill sink, which writes it to disk, before it is forgotten */
+        SPILL_TO_DISK
+    }
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        ring = new Ring(DEFAULT_CAPACITY);
+        policy = OverflowPolicy.DROP_OLDEST;
+        observers = new CopyOnWriteArrayList<EventObserver>();
     }
 
     /**
@@ -31,30 +56,237 @@ public class EventLog implements Iterable<Event> {
      * @return  instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        EventLog log = theLog;
+        if (log == null) {
+            synchronized (EventLog.class) {
+                log = theLog;
+                if (log == null) {
+                    log = new EventLog();
+                    theLog = log;
+                }
+            }
         }
-        return theLog;
+        return log;
     }
 
     /**
-     * Adds an event to the event log.
+     * Changes how many events the log keeps and what happens to the oldest
+     * ones once it is full. The latest events logged so far are kept.
+     * Meant to be called at start-up: events logged by other threads while
+     * the log is being reconfigured may be lost.
+     * @param capacity  the number of events to keep, rounded up to a power of two
+     * @param policy  what to do with the oldest event when the log is full
+     * @param spillSink  the sink evicted events are handed to under SPILL_TO_DISK, ignored otherwise;
+     *                   it is called on the logging thread and must not block
+     */
+    public synchronized void configure(int capacity, OverflowPolicy policy, EventObserver spillSink) {
+        spill = policy == OverflowPolicy.SPILL_TO_DISK ? spillSink : null;
+        this.policy = policy;
+        Ring newRing = new Ring(capacity);
+        for (Event event : this) {
+            newRing.add(event);
+        }
+        ring = newRing;
+        index = null;
+    }
+
+    /**
+     * Gets the number of events the log can hold.
+     * @return  the capacity of the log
+     */
+    public int getCapacity() {
+        return ring.capacity();
+    }
+
+    /**
+     * Adds an event to the event log. Events may be logged from any thread;
+     * observers are told about each event on the thread that logged it,
+     * after which the event only keeps the names of the objects it is about.
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        Event evicted = ring.add(e);
+        if (evicted != null && policy == OverflowPolicy.SPILL_TO_DISK) {
+            spill(evicted);
+        }
+        for (EventObserver observer : observers) {
+            observer.eventLogged(e);
+        }
+        e.detach();
+    }
+
+    /**
+     * Hands an evicted event to the spill sink.
+     * @param event  the event that no longer fits in the log
+     */
+    private void spill(Event event) {
+        EventObserver sink = spill;
+        if (sink != null) {
+            sink.eventLogged(event);
+        }
+    }
+
+    /**
+     * Registers an observer that is told about every event logged from now on.
+     * @param observer  the observer to register
+     */
+    public void addObserver(EventObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Stops telling the given observer about logged events.
+     * @param observer  the observer to remove
+     */
+    public void removeObserver(EventObserver observer) {
+        observers.remove(observer);
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
+        ring.clear();
         logEvent(new Event("Event log cleared."));
     }
 
+    /**
+     * Iterates over a snapshot of the events in the log, oldest first.
+     * Events logged while iterating are not seen.
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return Collections.unmodifiableList(ring.snapshot()).iterator();
+    }
+
+    /**
+     * Finds the events logged between two times, optionally only those of one
+     * type and about one application. The query runs over a snapshot of the log
+     * whose indexes are reused by later queries as long as nothing is logged,
+     * and the matching events are only found as the result is iterated.
+     * @param from  the earliest time to include, in milliseconds since the epoch
+     * @param to  the latest time to include, in milliseconds since the epoch
+     * @param type  the type of events to include, or null for every type
+     * @param applicationName  the application the events must be about, or null for any
+     * @return  the matching events, oldest first
+     */
+    public Iterable<Event> query(long from, long to, EventType type, String applicationName) {
+        EventIndex snapshot = currentIndex();
+        return () -> snapshot.iterator(from, to, type, applicationName);
+    }
+
+    /**
+     * Gets an index over the events in the log, reusing the last one if
+     * nothing was logged or cleared since it was built.
+     * @return  an index over a snapshot of the log
+     */
+    private EventIndex currentIndex() {
+        Ring current = ring;
+        long head = current.head.get();
+        long tail = current.tail.get();
+        EventIndex cached = index;
+        if (cached != null && cached.isCurrent(head, tail)) {
+            return cached;
+        }
+        List<Event> events = current.snapshot();
+        EventIndex fresh = new EventIndex(events.toArray(new Event[0]), head, tail);
+        boolean complete = events.size() == tail - Math.max(head, tail - current.capacity());
+        if (complete && current == ring && current.head.get() == head && current.tail.get() == tail) {
+            index = fresh;
+        }
+        return fresh;
+    }
+
+    /**
+     * Represents a bounded ring buffer of events. Producers claim a sequence
+     * number and publish their event to the slot it maps to with a
+     * compare-and-set, so no producer ever waits for another one; a slot only
+     * ever moves forward to a later sequence number.
+     */
+    private static final class Ring {
+        private final AtomicReferenceArray<Slot> slots;
+        private final int mask;
+        private final AtomicLong tail;      // the sequence number the next event gets
+        private final AtomicLong head;      // the first sequence number that was not cleared
+
+        /**
+         * Creates an empty ring.
+         * @param capacity  the number of events to hold, rounded up to a power of two
+         */
+        Ring(int capacity) {
+            int size = 1;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            slots = new AtomicReferenceArray<Slot>(size);
+            mask = slots.length() - 1;
+            tail = new AtomicLong();
+            head = new AtomicLong();
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+
+        /**
+         * Publishes an event.
+         * @param event  the event to add
+         * @return  the event that was pushed out to make room for it, or null if none was
+         */
+        Event add(Event event) {
+            long seq = tail.getAndIncrement();
+            Slot slot = new Slot(seq, event);
+            int index = (int) (seq & mask);
+            while (true) {
+                Slot current = slots.get(index);
+                if (current != null && current.seq > seq) {
+                    return event;   // a producer that wrapped around got here first: this event is already the oldest
+                }
+                if (slots.compareAndSet(index, current, slot)) {
+                    return current == null || current.seq < head.get() ? null : current.event;
+                }
+            }
+        }
+
+        /**
+         * Forgets every event published so far.
+         */
+        void clear() {
+            head.set(tail.get());
+        }
+
+        /**
+         * Copies the events in the ring, oldest first. Stops at the first
+         * sequence number that was claimed but not published yet, so the copy
+         * never has gaps that are filled in later.
+         * @return  the events in the ring
+         */
+        List<Event> snapshot() {
+            long end = tail.get();
+            long start = Math.max(head.get(), end - slots.length());
+            List<Event> events = new ArrayList<Event>((int) (end - start));
+            for (long seq = start; seq < end; seq++) {
+                Slot slot = slots.get((int) (seq & mask));
+                if (slot == null || slot.seq < seq) {
+                    break;
+                } else if (slot.seq == seq) {
+                    events.add(slot.event);
+                }
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Represents an event published at a sequence number.
+     */
+    private static final class Slot {
+        private final long seq;
+        private final Event event;
+
+        Slot(long seq, Event event) {
+            this.seq = seq;
+            this.event = event;
+        }
     }
 }
@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * Represents an object that is told about every event added to the event log.
+ */
+public interface EventObserver {
+    /**
+     * Reacts to an event that was just logged.
+     * @param event  the logged event
+     */
+    void eventLogged(Event event);
+}
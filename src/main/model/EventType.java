@@ -0,0 +1,30 @@
+package model;
+
+/**
+ * The kinds of changes an application manager event can record.
+ * Each kind documents the arguments its events carry, in order.
+ */
+public enum EventType {
+    /** (ApplicationList list, Application application, Integer position) */
+    APPLICATION_ADDED,
+    /** (ApplicationList list, Application application) */
+    APPLICATION_REMOVED,
+    /** (Application application, String deadline) */
+    DEADLINE_SET,
+    /** (Application application, String category) */
+    CATEGORY_SET,
+    /** (Application application, Requirement requirement) */
+    REQUIREMENT_ADDED,
+    /** (Application application, Requirement requirement) */
+    REQUIREMENT_REMOVED,
+    /** (Requirement requirement, Boolean status, Application application or null) */
+    STATUS_CHANGED,
+    /** (Requirement requirement, File document, Application application or null) */
+    DOCUMENT_UPLOADED,
+    /** (Requirement requirement, File document, Application application or null) */
+    DOCUMENT_DELETED,
+    /** (Requirement requirement, File document, Application application or null) */
+    DOCUMENT_OPENED,
+    /** no arguments; events that only carry a description */
+    OTHER
+}
@@ -21,74 +21,145 @@ import java.nio.file.Paths;
 //                   https://docs.oracle.com/javase/7/docs/api/java/awt/Desktop.html
 
 public class Requirement implements Writable {
-    private String name;             // name of the required document
-    private Boolean status;          // status of the requirement: True - fulfilled, False - not
-    private File uploadedDocument;   // keeps the document that the user might upload
+    private String name;                           // name of the required document
+    private boolean status;                        // status of the requirement: True - fulfilled, False - not
+    private volatile File uploadedDocument;        // keeps the document that the user might upload
+    private volatile DocumentState documentState;  // whether the uploaded document was found on disk
+    private Application application;               // the application this requirement belongs to, null if none
+
+    // What was found the last time the uploaded document was looked for on disk
+    public enum DocumentState {
+        UNCHECKED,      // recorded without looking at the disk, or there is no document
+        AVAILABLE,      // a readable regular file
+        MISSING         // not there or no longer readable
+    }
 
     // EFFECTS: creates a required document with a given name, status == false, and no uploaded document
     public Requirement(String name) {
         this.name = name;
         status = false;
         uploadedDocument = null;
+        documentState = DocumentState.UNCHECKED;
     }
 
     // MODIFIES: this
     // EFFECTS: change the status of the requirement fulfillment; true - fulfilled, false - not
-    public Boolean changeStatus(Boolean newStatus) {
+    public boolean changeStatus(boolean newStatus) {
+        boolean changed = status != newStatus;
         status = newStatus;
-        if (newStatus) {
-            EventLog.getInstance().logEvent(new Event("Changed status of " + this.name + " to " + "completed"));
-        } else {
-            EventLog.getInstance().logEvent(new Event("Changed status of " + this.name + " to " + "incomplete"));
+        if (changed && application != null) {
+            application.requirementStatusChanged(newStatus);
         }
+        EventLog.getInstance().logEvent(new Event(EventType.STATUS_CHANGED, this, newStatus, application));
         return status;
     }
 
+    // MODIFIES: this
+    // EFFECTS: remembers the application this requirement belongs to so it can keep the application's progress
+    // up to date; null means it does not belong to any application
+    void setApplication(Application application) {
+        this.application = application;
+    }
+
+    // EFFECTS: returns a copy of this requirement with the same status and document that belongs to no application;
+    // nothing is logged
+    synchronized Requirement copy() {
+        Requirement copy = new Requirement(name);
+        copy.status = status;
+        copy.uploadedDocument = uploadedDocument;
+        copy.documentState = documentState;
+        return copy;
+    }
+
     // REQUIRES: the file exists and the path to the file is correct
     // MODIFIES: this
     // EFFECTS: takes the name of the path to a file and, if the file is fine, uploads this file and returns true
     public boolean uploadDocument(String pathName) {
         Path file = Paths.get(pathName);
         if (Files.isRegularFile(file) & Files.isReadable(file)) {
-            uploadedDocument = new File(pathName);
-            EventLog.getInstance().logEvent(
-                    new Event("Uploaded file " + uploadedDocument.getName() + " for " + this.name));
+            setDocument(new File(pathName), DocumentState.AVAILABLE);
+            EventLog.getInstance().logEvent(new Event(EventType.DOCUMENT_UPLOADED, this, uploadedDocument,
+                    application));
             return true;
         } else {
             return false;
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: records the file at pathName as the uploaded document without looking at the disk, leaving its state
+    // UNCHECKED until it is checked with setDocumentState; an empty path records no document
+    public void recordDocument(String pathName) {
+        if (!pathName.isEmpty()) {
+            setDocument(new File(pathName), DocumentState.UNCHECKED);
+            EventLog.getInstance().logEvent(new Event(EventType.DOCUMENT_UPLOADED, this, uploadedDocument,
+                    application));
+        }
+    }
+
     // MODIFIES: this
     // EFFECTS: deletes the file from the app
     public void deleteUploadedDocument() {
-        if (uploadedDocument != null) {
-            EventLog.getInstance().logEvent(
-                    new Event("Deleted file " + uploadedDocument.getName() + " for " + this.name));
-            uploadedDocument = null;
+        File document = uploadedDocument;
+        if (document != null) {
+            EventLog.getInstance().logEvent(new Event(EventType.DOCUMENT_DELETED, this, document, application));
+            setDocument(null, DocumentState.UNCHECKED);
         }
     }
 
+    // MODIFIES: this
+    // EFFECTS: replaces the uploaded document and its state together
+    private synchronized void setDocument(File document, DocumentState state) {
+        uploadedDocument = document;
+        documentState = state;
+        if (application != null) {
+            application.requirementChanged();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records what checking document found and returns true if it is still the uploaded document,
+    // otherwise changes nothing and returns false
+    public synchronized boolean setDocumentState(File document, DocumentState state) {
+        if (document == null || !document.equals(uploadedDocument)) {
+            return false;
+        }
+        documentState = state;
+        return true;
+    }
+
     // EFFECTS: opens the uploaded document using the associated application and returns true,
     // returns false if there is no uploaded file
     public void openUploadedDocument() throws IOException {
         Desktop.getDesktop().open(uploadedDocument);
-        EventLog.getInstance().logEvent(
-                new Event("Opened file " + uploadedDocument.getName() + " for " + this.name));
+        EventLog.getInstance().logEvent(new Event(EventType.DOCUMENT_OPENED, this, uploadedDocument, application));
     }
 
     public String getName() {
         return name;
     }
 
-    public Boolean getStatus() {
+    public boolean getStatus() {
         return status;
     }
 
+    public Application getApplication() {
+        return application;
+    }
+
     public File getUploadedDocument() {
         return uploadedDocument;
     }
 
+    public DocumentState getDocumentState() {
+        return documentState;
+    }
+
+    // EFFECTS: returns true if the uploaded document was found missing the last time it was checked
+    public boolean isDocumentMissing() {
+        return uploadedDocument != null && documentState == DocumentState.MISSING;
+    }
+
     @Override
     public String toString() {
         return this.getName();
@@ -97,12 +168,13 @@ public class Requirement implements Writable {
     @Override
     public JSONObject toJson() {
         JSONObject json = new JSONObject();
+        File document = uploadedDocument;
         json.put("name", name);
         json.put("status", status);
-        if (uploadedDocument == null) {
+        if (document == null) {
             json.put("uploaded document", "");
         } else {
-            json.put("uploaded document", uploadedDocument);
+            json.put("uploaded document", document);
         }
         return json;
     }
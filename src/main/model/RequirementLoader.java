@@ -0,0 +1,10 @@
+package model;
+
+import java.util.List;
+
+// Represents where the required documents of an application that have not been read yet come from
+public interface RequirementLoader {
+    // EFFECTS: reads and returns the required documents, in the order they were added;
+    // throws UncheckedIOException if they can no longer be read
+    List<Requirement> loadRequirements();
+}
@@ -0,0 +1,334 @@
+package persistence;
+
+import model.ApplicationList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+// Represents where an application list is saved: a full save of the list plus a journal of the changes made since
+// The first save of a list writes it in full; as long as the same list stays loaded, later saves only flush
+// the journal. Loading reads the full save, building its applications on every core, and replays the journal on
+// top of it. Once the journal crosses the compactor's thresholds, a save moves it aside as a segment that is folded
+// into the full save in the background. Loading leaves each application's requirements in the full save until
+// the application needs them, and uploaded documents are not looked for on disk while loading: their paths are
+// recorded as they are and the document validator checks them in the background once they are read.
+// Full saves are written in the store's format, JSON unless set otherwise; loading reads a full save of either
+// format, and the first save after the format is changed writes the list in full in the new format. A binary full
+// save is mapped into memory rather than read, so loading it only decodes the applications themselves. A load
+// listener is told how reading the full save is going, and a load whose thread is interrupted stops. A load can be
+// read first and committed later, so the list loaded before keeps being journaled and its requirements can still be
+// read until the new list replaces it.
+// A SHARDED full save keeps one file per application, so saving rewrites only the applications that changed and
+// no journal is kept for it.
+public class ApplicationStore {
+    private static final String SEGMENT_SUFFIX = ".old";
+    private String source;
+    private String segment;                 // the journal segment being folded into the full save
+    private JsonReader jsonReader;          // the reader of the full save the loaded list left requirements in
+    private ShardedStore shardedStore;      // where SHARDED full saves go
+    private StorageFormat format;           // the format full saves are written in
+    private StorageFormat loadedFormat;     // the format of the full save the journaled list is in, or null
+    private Journal journal;
+    private JournalCompactor compactor;
+    private DocumentValidator documentValidator;
+    private LoadListener loadListener;      // told how reading the full save is going, or null
+    private long foldedSequence;            // the last journal record that is in the full save or being folded in
+
+    // EFFECTS: constructs a store that saves the application list in full to source and journals changes
+    // to journalSource
+    public ApplicationStore(String source, String journalSource) {
+        this.source = source;
+        this.segment = journalSource + SEGMENT_SUFFIX;
+        format = StorageFormat.JSON;
+        journal = new Journal(journalSource);
+        compactor = new JournalCompactor();
+        documentValidator = new DocumentValidator();
+        jsonReader = newJsonReader();
+        shardedStore = new ShardedStore(StorageFormat.shardDirectory(source));
+    }
+
+    // EFFECTS: returns the file the application list is saved to in full
+    public String getSource() {
+        return source;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the format full saves are written in from the next save on
+    public void setFormat(StorageFormat format) {
+        this.format = format;
+    }
+
+    public StorageFormat getFormat() {
+        return format;
+    }
+
+    // EFFECTS: returns the compactor, whose thresholds decide when the journal is folded into the full save
+    public JournalCompactor getCompactor() {
+        return compactor;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener that is told about the applications as the full save is read; null for none
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    // EFFECTS: returns the validator that checks the documents of loaded lists in the background
+    public DocumentValidator getDocumentValidator() {
+        return documentValidator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops unsaved changes, reads the last full save, replays the journal on top of it and returns
+    // the resulting list; changes to that list are journaled from now on and its documents are checked in the
+    // background. A segment left behind by a compaction that did not finish is replayed first and folded in again.
+    // The list loaded before is replaced: requirements it left in the full save can no longer be read.
+    // Throws IOException if a file cannot be read
+    public ApplicationList load() throws IOException {
+        return read().commit();
+    }
+
+    // EFFECTS: reads the last full save and replays the journal and any segment left behind by a compaction that
+    // did not finish on top of it, like load, but leaves the list loaded now, its journal and the full save it left
+    // requirements in as they are until the returned load is committed; the store must not be saved to meanwhile.
+    // Throws IOException if a file cannot be read, and InterruptedIOException if the thread is interrupted
+    public PendingLoad read() throws IOException {
+        awaitCompaction();
+        PendingLoad load = new PendingLoad(StorageFormat.detect(source));
+        try {
+            load.readFullSave();
+            load.replay();
+        } catch (IOException | RuntimeException e) {
+            load.abandon();
+            throw e;
+        }
+        return load;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: folds the segment left behind by a compaction that did not finish, already replayed into appList,
+    // into the full save again, in the background unless the full save is SHARDED
+    private void foldLeftover(ApplicationList appList) throws IOException {
+        if (loadedFormat == StorageFormat.SHARDED) {
+            shardedStore.setJournalSequence(foldedSequence);
+            shardedStore.save(appList);
+            Files.delete(Paths.get(segment));
+        } else {
+            compactor.compact(source, segment);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves appList: if its changes are being journaled and the format has not changed since it was
+    // loaded, only the journal is flushed to disk, otherwise the list is written in full, the journal is emptied
+    // and changes to the list are journaled from now on. Throws IOException if the list could not be saved
+    public void save(ApplicationList appList) throws IOException {
+        prepareSave(appList).complete();
+    }
+
+    // MODIFIES: this, appList
+    // EFFECTS: captures what saving appList like save has to write without touching the disk: nothing when only the
+    // journal needs saving, or a copy of the list when it is written in full. The returned save writes it out and
+    // forces it to disk; it can run on another thread while the list keeps changing, as long as the store is not
+    // used until it is complete, and a save that failed leaves the list to be written in full by the next one
+    public PendingSave prepareSave(ApplicationList appList) {
+        if (journal.isAttachedTo(appList) && loadedFormat == format) {
+            return () -> {
+                journal.flush();
+                compactIfNeeded();
+            };
+        }
+        StorageFormat savedFormat = format;
+        FullSave fullSave;
+        if (savedFormat == StorageFormat.SHARDED) {
+            ShardedStore.Snapshot snapshot = shardedStore.capture(appList);
+            fullSave = sequence -> {
+                shardedStore.setJournalSequence(sequence);
+                shardedStore.save(snapshot);
+            };
+            journal.attach(null);
+        } else {
+            ApplicationList copy = appList.copy();
+            fullSave = sequence -> savedFormat.save(source, copy, sequence);
+            journal.attach(appList);
+        }
+        loadedFormat = null;
+        return () -> saveInFull(savedFormat, fullSave);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the list captured in fullSave in full in the given format and empties the journal; the changes
+    // recorded since the list was captured are kept to be flushed by the next save
+    private void saveInFull(StorageFormat savedFormat, FullSave fullSave) throws IOException {
+        awaitCompaction();
+        Journal leftover = new Journal(segment);
+        leftover.scan();
+        journal.scan();
+        fullSave.write(Math.max(journal.getSequence(), leftover.getSequence()));
+        if (savedFormat == StorageFormat.SHARDED) {
+            Files.deleteIfExists(Paths.get(source));
+        } else {
+            shardedStore.delete();
+        }
+        Files.deleteIfExists(Paths.get(segment));
+        journal.reset();
+        loadedFormat = savedFormat;
+        foldedSequence = journal.getSequence();
+    }
+
+    // Represents a list captured to be written in full
+    private interface FullSave {
+        // EFFECTS: writes the list, recording that it includes every journal record up to sequence
+        void write(long sequence) throws IOException;
+    }
+
+    // Represents the part of a save that is left once what it has to write has been captured: writing it out and
+    // forcing it to disk
+    public interface PendingSave {
+        // EFFECTS: writes what the save captured and forces it to disk; throws IOException if it could not be saved
+        void complete() throws IOException;
+    }
+
+    // EFFECTS: returns a reader for the JSON full save that leaves requirements and documents to be read when they
+    // are needed and builds applications on every core
+    private JsonReader newJsonReader() {
+        JsonReader reader = new JsonReader(source);
+        reader.setParallelism(Runtime.getRuntime().availableProcessors());
+        reader.setLazyDocuments(true);
+        reader.setLazyRequirements(true);
+        reader.setDocumentValidator(documentValidator);
+        return reader;
+    }
+
+    // Represents a list read from the store that has not replaced the list loaded before yet
+    // What it read is kept apart from the store until it is committed: its own reader, which the list may leave
+    // requirements in, the sharded store it was read from and the last journal record it includes.
+    public final class PendingLoad {
+        private final StorageFormat readFormat;     // the format of the full save read
+        private final JsonReader reader;            // the reader of a JSON full save
+        private ShardedStore shards;                // the store a SHARDED full save was read from, or null
+        private ApplicationList appList;            // the list read
+        private long readSequence;                  // the last journal record replayed into the list
+        private boolean leftover;                   // true if a segment left behind was replayed into the list
+
+        // EFFECTS: constructs a load of a full save in the given format
+        private PendingLoad(StorageFormat readFormat) {
+            this.readFormat = readFormat;
+            reader = newJsonReader();
+            reader.setLoadListener(loadListener);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads the full save and remembers the last journal record it includes
+        private void readFullSave() throws IOException {
+            if (readFormat == StorageFormat.SHARDED) {
+                shards = new ShardedStore(shardedStore.getDirectory());
+                appList = shards.read();
+                readSequence = shards.getJournalSequence();
+            } else if (readFormat == StorageFormat.BINARY) {
+                BinaryReader binaryReader = new BinaryReader(source);
+                binaryReader.setLazyDocuments(true);
+                binaryReader.setMapped(true);
+                binaryReader.setDocumentValidator(documentValidator);
+                binaryReader.setLoadListener(loadListener);
+                appList = binaryReader.read();
+                readSequence = binaryReader.getJournalSequence();
+            } else {
+                appList = reader.read();
+                readSequence = reader.getJournalSequence();
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: replays the segment left behind by a compaction that did not finish, if any, then the journal
+        private void replay() throws IOException {
+            if (Files.exists(Paths.get(segment))) {
+                Journal segmentJournal = new Journal(segment);
+                segmentJournal.replay(appList, readSequence);
+                readSequence = Math.max(readSequence, segmentJournal.getSequence());
+                leftover = true;
+            }
+            journal.replay(appList, readSequence);
+        }
+
+        public ApplicationList getApplicationList() {
+            return appList;
+        }
+
+        // MODIFIES: ApplicationStore.this
+        // EFFECTS: replaces the list loaded before with the list read, dropping its unsaved changes, and returns the
+        // new list; changes to it are journaled from now on and its documents are checked in the background. A
+        // replayed segment is folded into the full save again. The new list replaces the old one even if this
+        // throws IOException because the segment could not be folded in or the full save the list loaded before
+        // left requirements in could not be closed
+        public ApplicationList commit() throws IOException {
+            JsonReader previous = jsonReader;
+            jsonReader = reader;
+            if (shards != null) {
+                shardedStore = shards;
+            }
+            loadedFormat = readFormat;
+            foldedSequence = readSequence;
+            documentValidator.validate(appList);
+            try {
+                if (loadedFormat == StorageFormat.SHARDED) {
+                    journal.discard();
+                } else {
+                    journal.attach(appList);
+                }
+                if (leftover) {
+                    foldLeftover(appList);
+                }
+            } finally {
+                previous.close();
+            }
+            return appList;
+        }
+
+        // EFFECTS: drops the list read and closes the full save it left requirements in; the list loaded before,
+        // its journal and its full save are left as they were
+        public void abandon() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                System.out.println("Problem closing " + source + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the journal has crossed the compactor's thresholds and no compaction is running, moves the journal
+    // aside and starts folding it into the full save; retries a compaction that failed before
+    private void compactIfNeeded() throws IOException {
+        if (compactor.isRunning()) {
+            return;
+        }
+        if (Files.exists(Paths.get(segment))) {
+            compactor.compact(source, segment);
+        } else if (compactor.shouldCompact(journal.length(), journal.getSequence() - foldedSequence)) {
+            journal.rotate(segment);
+            foldedSequence = journal.getSequence();
+            compactor.compact(source, segment);
+        }
+    }
+
+    // EFFECTS: waits for a running compaction to finish; a failed compaction leaves its segment to be replayed
+    public void awaitCompaction() {
+        try {
+            compactor.await();
+        } catch (IOException e) {
+            System.out.println("Problem compacting the journal: " + e.getMessage());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the changes made since the last save, stops journaling, waits for a running compaction and
+    // closes the full save the loaded list left requirements in; throws IOException if the journal could not be
+    // truncated or the full save closed
+    public void close() throws IOException {
+        journal.discard();
+        awaitCompaction();
+        jsonReader.close();
+    }
+}
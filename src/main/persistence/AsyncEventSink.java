@@ -0,0 +1,206 @@
+package persistence;
+
+import model.Event;
+import model.EventObserver;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents a sink that appends logged events to a rotating log file from a background thread
+// Events are only queued on the thread that logs them, so logging never waits for the disk; if the queue is full the
+// event is dropped and counted instead. The writer thread takes every queued event at once, writes the batch and
+// forces it to disk with a single sync (group commit). Once the file grows past its size limit it is renamed to
+// path.1 (path.1 to path.2, and so on) and a new file is started; the oldest file is deleted. A rotation that fails
+// keeps appending to the current file. Closing waits a bounded time for the writer thread, so a writer that is stuck
+// on the disk cannot keep the application from exiting.
+public class AsyncEventSink implements EventObserver {
+    public static final int DEFAULT_QUEUE_CAPACITY = 64 * 1024;
+    public static final long DEFAULT_MAX_FILE_BYTES = 4 * 1024 * 1024;
+    public static final int DEFAULT_MAX_FILES = 4;
+    public static final long CLOSE_TIMEOUT_MILLIS = 5000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Event STOP = new Event("");     // queued by close() to stop the writer thread
+    private final Path path;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Event> queue;
+    private final AtomicLong dropped;
+    private final Thread writerThread;
+    private FileChannel channel;            // only used by the writer thread
+    private Writer writer;
+    private volatile IOException failure;   // the first error writing events, reported by close()
+
+    // EFFECTS: constructs a sink with the default limits that appends events to the file at path
+    public AsyncEventSink(String path) throws IOException {
+        this(path, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_FILE_BYTES, DEFAULT_MAX_FILES);
+    }
+
+    // EFFECTS: constructs a sink that queues up to queueCapacity events and appends them to the file at path,
+    // keeping at most maxFiles files of about maxFileBytes bytes each; starts the writer thread.
+    // Throws IOException if the file cannot be opened
+    public AsyncEventSink(String path, int queueCapacity, long maxFileBytes, int maxFiles) throws IOException {
+        this.path = Paths.get(path);
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        queue = new LinkedBlockingQueue<Event>(queueCapacity);
+        dropped = new AtomicLong();
+        open();
+        writerThread = new Thread(this::writeBatches, "event-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues the event to be written without waiting; drops it if the queue is full
+    @Override
+    public void eventLogged(Event event) {
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // EFFECTS: returns the number of events dropped because the queue was full
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every event queued so far, stops the writer thread and closes the file; if the writer thread
+    // does not stop within CLOSE_TIMEOUT_MILLIS it is interrupted and the events still queued are dropped. Throws
+    // IOException if any event could not be written or the writer thread did not stop
+    public void close() throws IOException {
+        try {
+            if (!queue.offer(STOP, CLOSE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                writerThread.interrupt();
+            }
+            writerThread.join(CLOSE_TIMEOUT_MILLIS);
+            if (writerThread.isAlive()) {
+                writerThread.interrupt();
+                writerThread.join(CLOSE_TIMEOUT_MILLIS);
+                recordFailure(new IOException("The event log writer did not stop in time"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while closing the event log", e);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the log file for appending
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        writer = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel),
+                StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the writer thread, writes queued events in batches until close() is called
+    private void writeBatches() {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        List<Event> batch = new ArrayList<Event>();
+        boolean stopping = false;
+        while (!stopping) {
+            try {
+                stopping = takeBatch(batch);
+            } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                writeBatch(batch, format);
+            } catch (IOException e) {
+                recordFailure(e);
+            }
+            batch.clear();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            recordFailure(e);
+        }
+    }
+
+    // MODIFIES: this, batch
+    // EFFECTS: waits for an event and moves it and every other queued event into batch; returns true if close()
+    // has been called. Throws InterruptedException if interrupted while waiting
+    private boolean takeBatch(List<Event> batch) throws InterruptedException {
+        batch.add(queue.take());
+        queue.drainTo(batch);
+        return batch.removeIf(event -> event == STOP);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the error if it is the first one, to be reported by close()
+    private void recordFailure(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the events one per line, forces them to disk together and rotates the file if it has grown
+    // past its limit
+    private void writeBatch(List<Event> batch, SimpleDateFormat format) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (!channel.isOpen()) {
+            open();
+        }
+        for (Event event : batch) {
+            writer.write(format.format(event.getDate()));
+            writer.write(' ');
+            writer.write(event.getType().name());
+            writer.write(' ');
+            writer.write(event.getDescription().replace("\n", "\\n"));
+            writer.write('\n');
+        }
+        writer.flush();
+        channel.force(false);
+        if (channel.size() >= maxFileBytes) {
+            rotate();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the current file to path.1, shifting older files up by one and deleting the oldest,
+    // and starts a new file; if the files cannot be moved, keeps appending to the current file
+    private void rotate() throws IOException {
+        writer.close();
+        try {
+            Files.deleteIfExists(rotated(maxFiles - 1));
+            for (int i = maxFiles - 2; i >= 0; i--) {
+                if (Files.exists(rotated(i))) {
+                    Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } finally {
+            open();
+        }
+    }
+
+    // EFFECTS: returns the path of the file rotated out the given number of times; generation 0 is the current file
+    private Path rotated(int generation) {
+        return generation == 0 ? path : Paths.get(path + "." + generation);
+    }
+}
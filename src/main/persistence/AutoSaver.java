@@ -0,0 +1,328 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Event;
+import model.EventLog;
+import model.EventObserver;
+import model.Requirement;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Represents an autosaver that saves an application list to a store a little while after it changes
+// Changes are noticed through the EventLog. Every change restarts the delay, so a burst of edits is saved once after
+// it ends, but a list that keeps changing is still saved at least every maxDelay. When the delay is up the save is
+// prepared on the thread that owns the list (the event dispatch thread in the UI), which only captures what has to
+// be saved: nothing when the journal of changes is enough, or a copy of the list when it is saved in full. Writing
+// it out, moving the journal aside and forcing it all to disk are done on the autosave thread, so an autosave never
+// makes edits wait for the disk. Only one save runs at a time; changes made while it runs are saved by the next one,
+// and changes whose save failed wait to be saved again. Saving can be paused, for instance while another list is
+// read from the store, without losing the changes waiting to be saved.
+public class AutoSaver implements EventObserver {
+    public static final long DEFAULT_DELAY_MILLIS = 2000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10000;
+    private final ApplicationStore store;
+    private final Executor owner;               // runs tasks on the thread that owns the list
+    private final ScheduledExecutorService scheduler;
+    private volatile ApplicationList appList;   // the list being saved, null when none is
+    private long delayMillis;
+    private long maxDelayMillis;
+    private long changedSince;                  // when the oldest change not being saved was made, -1 if none
+    private ScheduledFuture<?> waiting;         // the save waiting for its delay to be up, null if there is none
+    private Future<?> running;                  // the last save handed to the autosave thread, null if none
+    private IOException failure;                // the error from the last save, null if it succeeded
+    private boolean paused;                     // true while saves wait for resume
+
+    // EFFECTS: constructs an autosaver with the default delays that saves to store, preparing saves through owner
+    public AutoSaver(ApplicationStore store, Executor owner) {
+        this.store = store;
+        this.owner = owner;
+        delayMillis = DEFAULT_DELAY_MILLIS;
+        maxDelayMillis = DEFAULT_MAX_DELAY_MILLIS;
+        changedSince = -1;
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets how long the list has to go without changes before it is saved
+    public synchronized void setDelay(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    public synchronized long getDelay() {
+        return delayMillis;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the longest a change waits to be saved while the list keeps changing
+    public synchronized void setMaxDelay(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    public synchronized long getMaxDelay() {
+        return maxDelayMillis;
+    }
+
+    // EFFECTS: returns the error from the last save, or null if it succeeded
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a save in progress, forgets changes that were not saved yet and saves the changes made to
+    // appList from now on; stops saving if appList is null. Must be called on the thread that owns the list
+    public void watch(ApplicationList appList) {
+        synchronized (this) {
+            cancelWaiting();
+            changedSince = -1;
+            paused = false;
+            this.appList = appList;
+        }
+        awaitRunning();
+        EventLog.getInstance().removeObserver(this);
+        if (appList != null) {
+            EventLog.getInstance().addObserver(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a save in progress and stops saving the list until resume is called; its changes keep
+    // waiting to be saved meanwhile. Must be called on the thread that owns the list
+    public void pause() {
+        synchronized (this) {
+            cancelWaiting();
+            paused = true;
+        }
+        awaitRunning();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the list again, starting the delay if changes are waiting to be saved
+    public synchronized void resume() {
+        paused = false;
+        if (changedSince >= 0 && appList != null) {
+            schedule();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a save in progress and saves the list now, on the calling thread, which must own the list
+    // or be the only one using it while the save runs; throws IOException if the list could not be saved
+    public void saveNow() throws IOException {
+        save(true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the changes that are waiting to be saved, stops saving and shuts down the autosave thread;
+    // throws IOException if the changes could not be saved. Must be called on the thread that owns the list
+    public void close() throws IOException {
+        EventLog.getInstance().removeObserver(this);
+        try {
+            save(false);
+        } finally {
+            appList = null;
+            scheduler.shutdown();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a save in progress, captures the list on the calling thread, which must own the list, and
+    // hands saving it to the autosave thread; the returned future fails with the IOException if the list could not
+    // be saved, and the changes then keep waiting. Throws InterruptedIOException if the thread is interrupted while
+    // a save runs
+    public Future<?> saveInBackground() throws InterruptedIOException {
+        long since = takeChanges();
+        ApplicationList saved = appList;
+        ApplicationStore.PendingSave pending = saved == null ? () -> { } : store.prepareSave(saved);
+        synchronized (this) {
+            running = scheduler.submit(() -> {
+                finish(pending, since);
+                return null;
+            });
+            return running;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a save in progress, then saves the list on the calling thread if always is true or it has
+    // changes waiting to be saved; if the save fails they keep waiting. Throws IOException if the list could not be
+    // saved
+    private void save(boolean always) throws IOException {
+        long since = takeChanges();
+        ApplicationList saved = appList;
+        if (saved == null || !always && since < 0) {
+            return;
+        }
+        finish(store.prepareSave(saved), since);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: completes a save of the changes made since the given time, -1 if there were none; if it fails, puts
+    // them back to wait and throws IOException
+    private void finish(ApplicationStore.PendingSave pending, long since) throws IOException {
+        try {
+            pending.complete();
+        } catch (IOException e) {
+            saveFailed(e, since);
+            throw e;
+        }
+        synchronized (this) {
+            failure = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits until no save is running and stops the delay, then returns when the oldest change waiting to be
+    // saved was made, or -1 if there is none, and stops it waiting; throws InterruptedIOException if the thread is
+    // interrupted while a save runs
+    private long takeChanges() throws InterruptedIOException {
+        while (true) {
+            awaitRunning();
+            synchronized (this) {
+                cancelWaiting();
+                if (running == null || running.isDone()) {
+                    long since = changedSince;
+                    changedSince = -1;
+                    return since;
+                }
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Interrupted while waiting for the autosave");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restarts the delay if the event changed the list being saved
+    @Override
+    public void eventLogged(Event event) {
+        if (changes(event)) {
+            synchronized (this) {
+                if (changedSince < 0) {
+                    changedSince = System.currentTimeMillis();
+                }
+                schedule();
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the event changed the list being saved; only the application itself is looked at,
+    // since events logged on other threads are about lists of their own
+    private boolean changes(Event event) {
+        ApplicationList watched = appList;
+        if (watched == null) {
+            return false;
+        }
+        switch (event.getType()) {
+            case APPLICATION_ADDED:
+            case APPLICATION_REMOVED:
+                return event.getArgument(0) == watched;
+            case DEADLINE_SET:
+            case CATEGORY_SET:
+            case REQUIREMENT_ADDED:
+            case REQUIREMENT_REMOVED:
+                return ((Application) event.getArgument(0)).hasObserver(watched);
+            case STATUS_CHANGED:
+            case DOCUMENT_UPLOADED:
+            case DOCUMENT_DELETED:
+                Application app = ((Requirement) event.getArgument(0)).getApplication();
+                return app != null && app.hasObserver(watched);
+            default:
+                return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: (re)starts the delay before the next save, never letting it run past maxDelay after the oldest change,
+    // unless saving is paused
+    private synchronized void schedule() {
+        cancelWaiting();
+        if (paused) {
+            return;
+        }
+        long delay = Math.min(delayMillis, changedSince + maxDelayMillis - System.currentTimeMillis());
+        waiting = scheduler.schedule(() -> owner.execute(this::prepareSave), Math.max(delay, 0),
+                TimeUnit.MILLISECONDS);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the delay that is running, if any
+    private synchronized void cancelWaiting() {
+        if (waiting != null) {
+            waiting.cancel(false);
+            waiting = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the thread that owns the list, captures the changes made so far and hands saving them to the
+    // autosave thread; if a save is still running, the next one starts when it is done
+    private synchronized void prepareSave() {
+        waiting = null;
+        ApplicationList saved = appList;
+        if (saved == null || paused || changedSince < 0 || running != null && !running.isDone()) {
+            return;
+        }
+        long since = changedSince;
+        changedSince = -1;
+        ApplicationStore.PendingSave pending = store.prepareSave(saved);
+        running = scheduler.submit(() -> complete(pending, since));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: on the autosave thread, saves what was captured for the changes made since the given time; starts the
+    // delay again if the list changed meanwhile
+    private void complete(ApplicationStore.PendingSave pending, long since) {
+        try {
+            finish(pending, since);
+        } catch (IOException e) {
+            return;     // the changes are saved again with the next change
+        }
+        synchronized (this) {
+            if (changedSince >= 0 && waiting == null && appList != null) {
+                schedule();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the error and puts the changes made since the given time back to wait, -1 if there were
+    // none; they are saved again with the next change or when the autosaver is closed
+    private synchronized void saveFailed(IOException e, long since) {
+        failure = e;
+        if (since >= 0 && (changedSince < 0 || since < changedSince)) {
+            changedSince = since;
+        }
+        System.out.println("Problem autosaving the application list: " + e.getMessage());
+    }
+
+    // EFFECTS: waits for the save handed to the autosave thread last to finish
+    private void awaitRunning() {
+        Future<?> last;
+        synchronized (this) {
+            last = running;
+        }
+        if (last == null) {
+            return;
+        }
+        try {
+            last.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.out.println("Problem autosaving the application list: " + e.getCause());
+        }
+    }
+}
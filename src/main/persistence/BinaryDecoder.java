@@ -0,0 +1,250 @@
+package persistence;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+// Represents a position in a file written by BinaryWriter that values are decoded from, in the order they were
+// written
+// Strings written before are referred to by the position their bytes were written at; the decoder keeps the strings
+// it has seen under that key.
+abstract class BinaryDecoder {
+    private final String name;          // the file being decoded
+    private final long size;            // the size of its contents
+
+    // EFFECTS: constructs a decoder for the contents of the file name, size bytes long
+    BinaryDecoder(String name, long size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    // EFFECTS: returns where the next byte is in the contents
+    abstract long position();
+
+    // MODIFIES: this
+    // EFFECTS: returns the next byte; throws EOFException at the end of the contents
+    abstract byte readByte() throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: returns the next length bytes; throws EOFException if the contents end before them
+    abstract byte[] readBytes(int length) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: returns true if there is nothing left to decode; reading to the end verifies a checksum trailer
+    abstract boolean atEnd() throws IOException;
+
+    // EFFECTS: returns the string kept under key, or null if there is none
+    abstract String lookUp(long key) throws IOException;
+
+    // MODIFIES: this
+    // EFFECTS: keeps the string under key for later references
+    abstract void remember(long key, String value);
+
+    // MODIFIES: this
+    // EFFECTS: decodes an unsigned varint
+    long readVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number in " + name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a count of things that follow
+    int readCount() throws IOException {
+        long count = readVarint();
+        if (count > Integer.MAX_VALUE) {
+            throw new IOException("Count too large in " + name);
+        }
+        return (int) count;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a 4 byte big-endian length
+    int readLength() throws IOException {
+        int length = 0;
+        for (int i = 0; i < 4; i++) {
+            length = (length << 8) | (readByte() & 0xFF);
+        }
+        if (length < 0 || length > size - position()) {
+            throw new IOException("Length out of range in " + name);
+        }
+        return length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a string, either by reference to one written before or from its bytes
+    String readString() throws IOException {
+        long start = position();
+        long tag = readVarint();
+        if ((tag & 1) == 0) {
+            String value = lookUp(tag >>> 1);
+            if (value == null) {
+                throw new IOException("Unknown string " + (tag >>> 1) + " in " + name);
+            }
+            return value;
+        }
+        long length = tag >>> 1;
+        if (length > size - position()) {
+            throw new EOFException("Unexpected end of " + name);
+        }
+        String value = new String(readBytes((int) length), StandardCharsets.UTF_8);
+        remember(start, value);
+        return value;
+    }
+
+    // Represents a decoder that reads a file through a buffer, keeping every string it decodes
+    static final class Stream extends BinaryDecoder {
+        private static final int BUFFER_SIZE = 64 * 1024;
+        private final InputStream in;
+        private final byte[] buffer;
+        private final Map<Long, String> strings;
+        private long consumed;          // the number of bytes read before the ones in buffer
+        private int next;               // index of the next byte of buffer to decode
+        private int limit;              // index after the last byte read into buffer
+
+        // EFFECTS: constructs a decoder for the contents of the file name, size bytes long, read from in
+        Stream(String name, long size, InputStream in) {
+            super(name, size);
+            this.in = in;
+            buffer = new byte[BUFFER_SIZE];
+            strings = new HashMap<Long, String>();
+        }
+
+        @Override
+        long position() {
+            return consumed + next;
+        }
+
+        @Override
+        byte readByte() throws IOException {
+            if (next == limit && !fill()) {
+                throw new EOFException("Unexpected end of " + getName());
+            }
+            return buffer[next++];
+        }
+
+        @Override
+        byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            int copied = 0;
+            while (copied < length) {
+                if (next == limit && !fill()) {
+                    throw new EOFException("Unexpected end of " + getName());
+                }
+                int count = Math.min(length - copied, limit - next);
+                System.arraycopy(buffer, next, bytes, copied, count);
+                next += count;
+                copied += count;
+            }
+            return bytes;
+        }
+
+        @Override
+        boolean atEnd() throws IOException {
+            return next == limit && !fill();
+        }
+
+        @Override
+        String lookUp(long key) {
+            return strings.get(key);
+        }
+
+        @Override
+        void remember(long key, String value) {
+            strings.put(key, value);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: reads more of the file into the empty buffer; returns false at the end of the file
+        private boolean fill() throws IOException {
+            consumed += limit;
+            int count = in.read(buffer, 0, buffer.length);
+            next = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+
+    // Represents a decoder that reads straight from a mapped file, starting anywhere in it
+    // Strings referred to are decoded from where they were written and kept in strings, which decoders of the same
+    // file share; strings decoded from their bytes in passing are not kept, as most are never referred to.
+    static final class Mapped extends BinaryDecoder {
+        private final MappedFile file;
+        private final Map<Long, String> strings;
+        private long position;
+
+        // EFFECTS: constructs a decoder for file that starts at position and shares the strings referred to
+        Mapped(MappedFile file, long position, Map<Long, String> strings) {
+            super(file.getName(), file.size());
+            this.file = file;
+            this.position = position;
+            this.strings = strings;
+        }
+
+        @Override
+        long position() {
+            return position;
+        }
+
+        @Override
+        byte readByte() throws IOException {
+            return file.get(position++);
+        }
+
+        @Override
+        byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            file.get(position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: moves past the next length bytes without decoding them
+        void skip(long length) {
+            position += length;
+        }
+
+        @Override
+        boolean atEnd() {
+            return position >= file.size();
+        }
+
+        @Override
+        String lookUp(long key) throws IOException {
+            String value = strings.get(key);
+            if (value == null && key >= 0 && key < position) {
+                Mapped literal = new Mapped(file, key, strings);
+                long tag = literal.readVarint();
+                if ((tag & 1) == 0 || (tag >>> 1) > file.size() - literal.position) {
+                    return null;
+                }
+                value = new String(literal.readBytes((int) (tag >>> 1)), StandardCharsets.UTF_8);
+                strings.put(key, value);
+            }
+            return value;
+        }
+
+        @Override
+        void remember(long key, String value) {
+            // only strings that are referred to are kept
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Represents a reader that reads an application list from a file written by BinaryWriter
+// The file is read in one pass through a buffer, so nothing but the applications and the strings they share is
+// kept in memory. Files saved with a checksum trailer are verified. With lazy documents, uploaded document paths
+// are recorded without looking at the disk and are left for a DocumentValidator to check.
+// With mapped set, the file is mapped into memory instead (see MappedFile) and only the applications themselves are
+// decoded; the requirements of each application are left in the mapping (see MappedRequirements) and decoded the
+// first time the application needs them. Opening a list then only touches the parts of the file that hold the
+// applications, which the operating system pages in as needed, but the checksum trailer is not verified. Such a
+// list must only be saved atomically (BinaryWriter.setAtomic) while it still has requirements in the mapping.
+// A load listener is told about the applications a chunk at a time as they are decoded, and a reading thread that is
+// interrupted stops with an InterruptedIOException.
+public class BinaryReader {
+    static final int CHUNK_SIZE = ParallelApplicationLoader.CHUNK_SIZE;
+    private String source;
+    private long journalSequence;       // the journal sequence number stored in the last file read
+    private boolean lazyDocuments;      // whether document paths are recorded without being checked
+    private boolean mapped;             // whether the file is mapped and requirements are left in it
+    private DocumentValidator documentValidator;    // where requirements decoded later are checked, or null
+    private LoadListener loadListener;  // told about the applications as they are decoded, or null
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+        this.journalSequence = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if lazyDocuments is true, uploaded documents are recorded without checking that the files are there,
+    // otherwise documents that are not readable files are left out as they are read (the default)
+    public void setLazyDocuments(boolean lazyDocuments) {
+        this.lazyDocuments = lazyDocuments;
+    }
+
+    public boolean isLazyDocuments() {
+        return lazyDocuments;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if mapped is true, the file is mapped into memory and the requirements of each application are only
+    // decoded the first time the application needs them, otherwise the whole file is read (the default)
+    public void setMapped(boolean mapped) {
+        this.mapped = mapped;
+    }
+
+    public boolean isMapped() {
+        return mapped;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the validator that requirements decoded later, when mapped, are handed to; null for none
+    public void setDocumentValidator(DocumentValidator documentValidator) {
+        this.documentValidator = documentValidator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener that is told about the applications as they are decoded; null for none
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    // EFFECTS: returns the sequence number of the last journal record already included in the file that was
+    // read last, or 0 if the file did not record one
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads list of applications from file and returns it; throws IOException if an error occurs reading
+    // data from file, if the file is not in a binary format this reader knows or if the file has a checksum trailer
+    // that does not match its contents
+    public ApplicationList read() throws IOException {
+        journalSequence = 0;
+        if (mapped) {
+            MappedRequirements.Source requirements = new MappedRequirements.Source(MappedFile.map(source),
+                    lazyDocuments, documentValidator);
+            BinaryDecoder.Mapped in = requirements.decoderAt(0);
+            readHeader(in);
+            return readApplications(in, requirements);
+        }
+        FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        try (InputStream stream = new ChecksumInputStream(Channels.newInputStream(channel))) {
+            BinaryDecoder in = new BinaryDecoder.Stream(source, channel.size(), stream);
+            readHeader(in);
+            return readApplications(in, null);
+        }
+    }
+
+    // MODIFIES: this, in
+    // EFFECTS: decodes the magic number, the version and the journal sequence number; throws IOException if the file
+    // is not in the binary format this reader knows
+    private void readHeader(BinaryDecoder in) throws IOException {
+        byte[] magic = in.readBytes(BinaryWriter.MAGIC.length);
+        if (!Arrays.equals(magic, BinaryWriter.MAGIC)) {
+            throw new IOException("Not a binary application list: " + source);
+        }
+        long version = in.readVarint();
+        if (version != BinaryWriter.VERSION) {
+            throw new IOException("Unsupported binary format version " + version + " in " + source);
+        }
+        journalSequence = in.readVarint();
+    }
+
+    // MODIFIES: in
+    // EFFECTS: decodes the applications and checks that nothing follows them, telling the listener about them a
+    // chunk at a time; the requirements are left in the mapping if requirements is not null
+    private ApplicationList readApplications(BinaryDecoder in, MappedRequirements.Source requirements)
+            throws IOException {
+        int count = in.readCount();
+        ApplicationList appList = new ApplicationList();
+        List<Application> chunk = new ArrayList<Application>(Math.min(count, CHUNK_SIZE));
+        for (int i = 0; i < count; i++) {
+            Application application = readApplication(in, requirements);
+            appList.addApplication(application);
+            chunk.add(application);
+            if (chunk.size() == CHUNK_SIZE || i == count - 1) {
+                report(chunk, in);
+                chunk = new ArrayList<Application>(CHUNK_SIZE);
+            }
+        }
+        if (!in.atEnd()) {
+            throw new IOException("Unexpected data after the applications in " + source);
+        }
+        return appList;
+    }
+
+    // MODIFIES: in
+    // EFFECTS: decodes an application, set up the same way JsonReader sets one up
+    private Application readApplication(BinaryDecoder in, MappedRequirements.Source requirements)
+            throws IOException {
+        Application application = new Application(in.readString());
+        application.setCategory(in.readString());
+        long flags = in.readVarint();
+        int progress = (int) unzigzag(in.readVarint());
+        if ((flags & BinaryWriter.APPLICATION_DEADLINE) != 0) {
+            long deadline = unzigzag(in.readVarint());
+            String text = (flags & BinaryWriter.APPLICATION_DEADLINE_TEXT) != 0 ? in.readString() : null;
+            application.setDeadline(deadline, text);
+        }
+        application.setStatus((flags & BinaryWriter.APPLICATION_COMPLETED) != 0);
+        application.setProgress(progress);
+        readRequirements(in, requirements, application);
+        return application;
+    }
+
+    // MODIFIES: in, application
+    // EFFECTS: decodes the block of requirements of the application; if the file is mapped (requirements is not
+    // null), skips the block and leaves it to be decoded the first time the application needs its requirements
+    private void readRequirements(BinaryDecoder in, MappedRequirements.Source requirements, Application application)
+            throws IOException {
+        int length = in.readLength();
+        if (requirements != null) {
+            application.setRequirementLoader(new MappedRequirements(requirements, in.position(), length));
+            ((BinaryDecoder.Mapped) in).skip(length);
+            return;
+        }
+        long end = in.position() + length;
+        int count = in.readCount();
+        for (int i = 0; i < count; i++) {
+            application.addRequirement(readRequirement(in, lazyDocuments));
+        }
+        if (in.position() != end) {
+            throw new IOException("Malformed requirements in " + source);
+        }
+    }
+
+    // MODIFIES: in
+    // EFFECTS: decodes a requirement; if lazyDocuments is true, the document path is recorded without being checked
+    static Requirement readRequirement(BinaryDecoder in, boolean lazyDocuments) throws IOException {
+        Requirement requirement = new Requirement(in.readString());
+        long flags = in.readVarint();
+        requirement.changeStatus((flags & BinaryWriter.REQUIREMENT_FULFILLED) != 0);
+        if ((flags & BinaryWriter.REQUIREMENT_DOCUMENT) != 0) {
+            String document = in.readString();
+            if (lazyDocuments) {
+                requirement.recordDocument(document);
+            } else {
+                requirement.uploadDocument(document);
+            }
+        }
+        return requirement;
+    }
+
+    // EFFECTS: tells the listener that the applications were decoded; throws InterruptedIOException if the reading
+    // thread was interrupted, so that a cancelled load stops
+    private void report(List<Application> applications, BinaryDecoder in) throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Interrupted while loading applications");
+        }
+        if (loadListener != null) {
+            loadListener.applicationsLoaded(applications, in.position(), in.getSize());
+        }
+    }
+
+    // EFFECTS: undoes BinaryWriter.zigzag
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,269 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.DeadlineFormat;
+import model.Requirement;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a writer that writes an application list to file in a compact binary format
+// A file starts with MAGIC and the format VERSION, followed by the journal sequence number and the applications.
+// Whole numbers are written as varints, 7 bits to a byte with the high bit set on every byte but the last, and
+// numbers that can be negative are zigzag-encoded first so small negative numbers stay short. Deadlines are written
+// as milliseconds since the epoch, so reading them back does not parse any text. Strings go through a dictionary:
+// the first time a string is written its UTF-8 bytes are written, after that only the position they were written at,
+// so categories, requirement names and document folders shared by many applications take a few bytes each. The
+// requirements of each application are written as a block that starts with its length, so a reader can skip them
+// and, since every string they refer to is found by its position, decode them later on their own (see BinaryReader).
+// Version 2 lays a file out as:
+//     file         = MAGIC version:varint journalSequence:varint count:varint application*
+//     application  = name:string category:string flags:varint progress:zigzag [deadline:zigzag] [text:string]
+//                    length:int32 requirements
+//     requirements = count:varint requirement*
+//     requirement  = name:string flags:varint [document:string]
+//     string       = (position << 1):varint | (length << 1 | 1):varint utf8-bytes
+public class BinaryWriter {
+    static final byte[] MAGIC = {(byte) 0x89, 'A', 'M', 'B'};
+    static final int VERSION = 2;
+    static final int APPLICATION_COMPLETED = 1;
+    static final int APPLICATION_DEADLINE = 2;          // a deadline follows the progress
+    static final int APPLICATION_DEADLINE_TEXT = 4;     // the deadline is shown as the text that follows it
+    static final int REQUIREMENT_FULFILLED = 1;
+    static final int REQUIREMENT_DOCUMENT = 2;          // a document path follows the flags
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private String destination;
+    private boolean atomic;
+    private boolean checksum;
+    private long journalSequence;               // the last journal record included in the save, 0 for none
+    private SaveOutputStream output;            // the file being written
+    private Encoder encoder;                    // the bytes not yet handed to output
+    private Encoder block;                      // the requirements of the application being written
+    private Map<String, Long> dictionary;       // where each string written so far was written
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+        this.atomic = false;
+        this.checksum = false;
+        this.journalSequence = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if atomic is true, the file is written next to the destination, flushed to disk and then moved over
+    // the destination on close, so the destination always holds a complete save
+    public void setAtomic(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if checksum is true, a CRC-32 trailer is appended that BinaryReader verifies on read
+    public void setChecksum(boolean checksum) {
+        this.checksum = checksum;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records in the file that it already includes every journal record up to journalSequence
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot be opened for writing
+    public void open() throws FileNotFoundException {
+        output = new SaveOutputStream(destination, atomic, checksum);
+        encoder = new Encoder(0);
+        block = new Encoder(0);
+        dictionary = new HashMap<String, Long>();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes application list to file; throws IOException if it could not be written, in which case
+    // the file is closed and an atomic save leaves the destination untouched
+    public void write(ApplicationList appList) throws IOException {
+        try {
+            List<Application> applications = appList.getApplicationList();
+            encoder.writeBytes(MAGIC, MAGIC.length);
+            encoder.writeVarint(VERSION);
+            encoder.writeVarint(journalSequence);
+            encoder.writeVarint(applications.size());
+            for (Application app : applications) {
+                writeApplication(app);
+                if (encoder.length >= BUFFER_SIZE) {
+                    flushEncoder();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes the application with its requirements
+    private void writeApplication(Application app) {
+        writeString(encoder, app.getName());
+        writeString(encoder, app.getCategory() == null ? "" : app.getCategory());
+        writeDeadline(app);
+        writeRequirements(app.getRequiredDocuments());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes the flags and progress of the application, followed by its deadline if it has one and
+    // the deadline's text if it is not shown the way DeadlineFormat formats it
+    private void writeDeadline(Application app) {
+        String text = null;
+        int flags = app.getStatus() ? APPLICATION_COMPLETED : 0;
+        if (app.hasDeadline()) {
+            flags |= APPLICATION_DEADLINE;
+            String shown = app.getStrDeadline();
+            if (!shown.equals(DeadlineFormat.format(app.getDeadlineTime()))) {
+                text = shown;
+                flags |= APPLICATION_DEADLINE_TEXT;
+            }
+        }
+        encoder.writeVarint(flags);
+        encoder.writeVarint(zigzag(app.getProgress()));
+        if (app.hasDeadline()) {
+            encoder.writeVarint(zigzag(app.getDeadlineTime()));
+        }
+        if (text != null) {
+            writeString(encoder, text);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: encodes the requirements as a block that starts with its length
+    private void writeRequirements(List<Requirement> requirements) {
+        block.clear(encoder.position() + Integer.BYTES);
+        block.writeVarint(requirements.size());
+        for (Requirement requirement : requirements) {
+            File document = requirement.getUploadedDocument();
+            writeString(block, requirement.getName());
+            block.writeVarint((requirement.getStatus() ? REQUIREMENT_FULFILLED : 0)
+                    | (document != null ? REQUIREMENT_DOCUMENT : 0));
+            if (document != null) {
+                writeString(block, document.getPath());
+            }
+        }
+        encoder.writeLength(block.length);
+        encoder.writeBytes(block.bytes, block.length);
+    }
+
+    // MODIFIES: this, out
+    // EFFECTS: encodes where the string was written if it was written before, otherwise the string itself
+    private void writeString(Encoder out, String value) {
+        Long written = dictionary.get(value);
+        if (written != null) {
+            out.writeVarint(written << 1);
+            return;
+        }
+        dictionary.put(value, out.position());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarint(((long) bytes.length << 1) | 1);
+        out.writeBytes(bytes, bytes.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: hands the encoded bytes to the file
+    private void flushEncoder() throws IOException {
+        output.write(encoder.bytes, 0, encoder.length);
+        encoder.clear(encoder.position());
+    }
+
+    // EFFECTS: maps value to an unsigned number that is small when value is close to 0
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the checksum trailer if it is enabled and closes the file; in atomic mode also forces the file
+    // to disk and moves it over the destination; throws IOException if anything could not be written, in which
+    // case an atomic save leaves the destination untouched
+    public void close() throws IOException {
+        try {
+            flushEncoder();
+        } catch (IOException e) {
+            output.close();
+            throw e;
+        }
+        output.commit();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file without committing what was written; an atomic save leaves the destination untouched
+    public void abort() {
+        try {
+            output.close();
+        } catch (IOException e) {
+            // whatever was written is thrown away anyway
+        }
+    }
+
+    // Represents bytes being encoded that go into the file starting at a known position
+    private static final class Encoder {
+        private byte[] bytes;
+        private int length;
+        private long start;             // the position in the file of the first byte
+
+        Encoder(long start) {
+            this.bytes = new byte[BUFFER_SIZE];
+            this.start = start;
+        }
+
+        // EFFECTS: returns the position in the file of the next byte encoded
+        long position() {
+            return start + length;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: drops the encoded bytes; the next byte encoded goes into the file at start
+        void clear(long start) {
+            this.start = start;
+            length = 0;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: encodes value as an unsigned varint
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: encodes value as 4 big-endian bytes
+        void writeLength(int value) {
+            ensureCapacity(Integer.BYTES);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the first count bytes of value as they are
+        void writeBytes(byte[] value, int count) {
+            ensureCapacity(count);
+            System.arraycopy(value, 0, bytes, length, count);
+            length += count;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes room for count more bytes
+        private void ensureCapacity(int count) {
+            if (bytes.length - length < count) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package persistence;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Represents a stream that hands out the bytes of a file without its checksum trailer and verifies the trailer
+// once the end of the file is reached; files without a trailer are passed through unchanged
+// The trailer is "\n#crc32:" followed by the CRC-32 of everything before it as 8 hex digits and "\n"
+class ChecksumInputStream extends FilterInputStream {
+    private static final String PREFIX = "\n#crc32:";
+    static final int TRAILER_LENGTH = PREFIX.length() + 8 + 1;
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final CRC32 crc;
+    private final byte[] buffer;
+    private int start;                  // index of the first byte that was not handed out yet
+    private int end;                    // index after the last byte read from the file
+    private boolean eof;                // true once the whole file was read into the buffer
+    private boolean hasTrailer;         // true if the file ends with a checksum trailer
+    private long expected;               // the checksum stored in the trailer
+
+    // EFFECTS: constructs a stream that reads the file contents from in
+    ChecksumInputStream(InputStream in) {
+        super(in);
+        crc = new CRC32();
+        buffer = new byte[BUFFER_SIZE];
+    }
+
+    // EFFECTS: returns the trailer to append to a file whose contents have the given CRC-32
+    static byte[] trailer(long checksum) {
+        return String.format("%s%08x\n", PREFIX, checksum).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xff;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads up to len bytes of the contents into b; returns -1 at the end of the contents;
+    // throws IOException if the file has a trailer that does not match its contents
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int available = fill();
+        if (available == 0) {
+            verify();
+            return -1;
+        }
+        int count = Math.min(len, available);
+        System.arraycopy(buffer, start, b, off, count);
+        crc.update(buffer, start, count);
+        start += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] skipped = new byte[(int) Math.min(n, BUFFER_SIZE)];
+        long total = 0;
+        while (total < n) {
+            int count = read(skipped, 0, (int) Math.min(n - total, skipped.length));
+            if (count == -1) {
+                break;
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public int available() {
+        return Math.max(0, end - start - (eof ? 0 : TRAILER_LENGTH));
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads ahead until there are bytes that are certainly not part of a trailer or the file ends;
+    // returns the number of bytes that can be handed out
+    private int fill() throws IOException {
+        while (!eof && end - start <= TRAILER_LENGTH) {
+            if (end == buffer.length) {
+                System.arraycopy(buffer, start, buffer, 0, end - start);
+                end -= start;
+                start = 0;
+            }
+            int count = in.read(buffer, end, buffer.length - end);
+            if (count == -1) {
+                eof = true;
+                findTrailer();
+            } else {
+                end += count;
+            }
+        }
+        return end - start - (eof ? 0 : TRAILER_LENGTH);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if the remaining bytes end with a trailer, remembers its checksum and stops them from being handed out
+    private void findTrailer() {
+        if (end - start < TRAILER_LENGTH) {
+            return;
+        }
+        long checksum = parseTrailer(buffer, end - TRAILER_LENGTH);
+        if (checksum >= 0) {
+            expected = checksum;
+            hasTrailer = true;
+            end -= TRAILER_LENGTH;
+        }
+    }
+
+    // EFFECTS: returns the checksum in the TRAILER_LENGTH bytes at off, or -1 if they are not a trailer
+    static long parseTrailer(byte[] bytes, int off) {
+        String tail = new String(bytes, off, TRAILER_LENGTH, StandardCharsets.US_ASCII);
+        if (tail.startsWith(PREFIX) && tail.endsWith("\n")) {
+            try {
+                return Long.parseLong(tail.substring(PREFIX.length(), TRAILER_LENGTH - 1), 16);
+            } catch (NumberFormatException e) {
+                // not a trailer, the bytes belong to the contents
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: throws IOException if the file has a trailer and it does not match the contents that were read
+    private void verify() throws IOException {
+        if (hasTrailer && crc.getValue() != expected) {
+            throw new IOException(String.format("Checksum mismatch: expected %08x but was %08x",
+                    expected, crc.getValue()));
+        }
+    }
+}
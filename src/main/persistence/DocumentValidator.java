@@ -0,0 +1,174 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import model.Requirement.DocumentState;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents a validator that checks on a background thread that the documents recorded for requirements are still
+// readable files
+// Loading with lazy documents only records document paths, so opening a store does not wait for the disk. The
+// validator then looks at the recorded documents in batches and marks each one AVAILABLE or MISSING. Results are
+// cached by path for maxAge, so a document shared by several requirements, or checked again soon after, is only
+// looked at once. The listener is told after every batch, on the validator thread, so views can show missing files.
+public class DocumentValidator {
+    public static final int BATCH_SIZE = 64;
+    public static final long DEFAULT_MAX_AGE_MILLIS = 60 * 1000;
+    private final Map<String, Check> cache;     // the last result for each document path
+    private volatile long maxAgeMillis;
+    private volatile Runnable listener;
+    private ExecutorService executor;           // created on the first validation
+    private Future<?> running;                  // the last batch submitted, null if there was none
+
+    // EFFECTS: constructs a validator with an empty cache that keeps results for the default time
+    public DocumentValidator() {
+        cache = new ConcurrentHashMap<String, Check>();
+        maxAgeMillis = DEFAULT_MAX_AGE_MILLIS;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets how long a result is reused before the document is looked at again
+    public void setMaxAge(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    public long getMaxAge() {
+        return maxAgeMillis;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets what to run after each batch is checked, on the validator thread; null for nothing
+    public void setListener(Runnable listener) {
+        this.listener = listener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts checking the documents in appList that have not been checked yet; requirements that are still
+    // to be read from the file are left alone
+    public void validate(ApplicationList appList) {
+        List<Requirement> unchecked = new ArrayList<Requirement>();
+        for (Application app : appList.getApplicationList()) {
+            if (!app.hasLoadedRequirements()) {
+                continue;
+            }
+            for (Requirement requirement : app.getRequiredDocuments()) {
+                if (requirement.getUploadedDocument() != null
+                        && requirement.getDocumentState() == DocumentState.UNCHECKED) {
+                    unchecked.add(requirement);
+                }
+            }
+        }
+        validate(unchecked);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts checking the documents of the requirements in batches of BATCH_SIZE, oldest first
+    public synchronized void validate(List<Requirement> requirements) {
+        if (requirements.isEmpty()) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "document-validator");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        for (int start = 0; start < requirements.size(); start += BATCH_SIZE) {
+            List<Requirement> batch = new ArrayList<Requirement>(
+                    requirements.subList(start, Math.min(start + BATCH_SIZE, requirements.size())));
+            running = executor.submit(() -> checkBatch(batch));
+        }
+    }
+
+    // EFFECTS: returns true if some documents are still waiting to be checked
+    public synchronized boolean isRunning() {
+        return running != null && !running.isDone();
+    }
+
+    // EFFECTS: waits until every document submitted so far has been checked; throws IOException if interrupted
+    // or if checking failed
+    public void await() throws IOException {
+        Future<?> last;
+        synchronized (this) {
+            last = running;
+        }
+        if (last == null) {
+            return;
+        }
+        try {
+            last.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for documents to be checked", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to check documents", e.getCause());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every cached result, so documents are looked at again the next time they are checked
+    public void clearCache() {
+        cache.clear();
+    }
+
+    // MODIFIES: requirements in batch
+    // EFFECTS: checks the document of each requirement in the batch and records the result, then tells the listener
+    private void checkBatch(List<Requirement> batch) {
+        for (Requirement requirement : batch) {
+            File document = requirement.getUploadedDocument();
+            if (document != null) {
+                requirement.setDocumentState(document, check(document));
+            }
+        }
+        Runnable current = listener;
+        if (current != null) {
+            current.run();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns whether the document is a readable regular file, reusing the cached result if it is recent
+    DocumentState check(File document) {
+        long now = System.currentTimeMillis();
+        Check cached = cache.get(document.getPath());
+        if (cached != null && now - cached.checkedAt <= maxAgeMillis) {
+            return cached.state;
+        }
+        DocumentState state;
+        try {
+            Path path = document.toPath();
+            state = Files.isRegularFile(path) && Files.isReadable(path) ? DocumentState.AVAILABLE
+                    : DocumentState.MISSING;
+        } catch (InvalidPathException e) {
+            state = DocumentState.MISSING;
+        }
+        cache.put(document.getPath(), new Check(state, now));
+        return state;
+    }
+
+    // Represents the result of looking at a document at some point in time
+    private static final class Check {
+        private final DocumentState state;
+        private final long checkedAt;
+
+        Check(DocumentState state, long checkedAt) {
+            this.state = state;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
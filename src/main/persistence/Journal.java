@@ -0,0 +1,461 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Event;
+import model.EventLog;
+import model.EventObserver;
+import model.EventType;
+import model.Requirement;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Represents an append-only journal of the changes made to an application list since it was last saved in full
+// Every change logged to the EventLog for the attached list is kept as a JSON record until the next flush, which
+// numbers the records with increasing sequence numbers and writes them one per line, so a save only has to write
+// the records made since the last save. Records are made on the thread that changes the list and written out on
+// the thread that saves it. A line torn by a crash in the middle of a write is skipped when the journal is replayed.
+// Events logged on other threads are about lists of their own and are never recorded.
+public class Journal implements EventObserver {
+    private static final Set<EventType> JOURNALED = EnumSet.of(EventType.APPLICATION_ADDED,
+            EventType.APPLICATION_REMOVED, EventType.DEADLINE_SET, EventType.CATEGORY_SET, EventType.REQUIREMENT_ADDED,
+            EventType.REQUIREMENT_REMOVED, EventType.STATUS_CHANGED, EventType.DOCUMENT_UPLOADED,
+            EventType.DOCUMENT_DELETED);
+    private Path path;
+    private volatile ApplicationList appList;   // the list whose changes are recorded, null when not attached
+    private final List<JSONObject> pending;     // the records not written yet, in order
+    private FileChannel channel;                // the journal file, null until a record is written to it
+    private long sequence;                      // the sequence number of the last record written or read
+    private long savedLength;                   // the length of the journal file when it was last flushed
+
+    // EFFECTS: constructs a journal that is kept in the file at path
+    public Journal(String path) {
+        this.path = Paths.get(path);
+        this.sequence = 0;
+        pending = new ArrayList<JSONObject>();
+    }
+
+    // EFFECTS: returns the sequence number of the last record written to or read from the journal
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    // EFFECTS: returns true if changes to the given list are being recorded
+    public boolean isAttachedTo(ApplicationList appList) {
+        return this.appList != null && this.appList == appList;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the records not written yet and starts recording every change made to appList from now on;
+    // stops recording any list that was attached before, and records nothing if appList is null
+    public void attach(ApplicationList appList) {
+        EventLog.getInstance().removeObserver(this);
+        synchronized (pending) {
+            pending.clear();
+        }
+        this.appList = appList;
+        if (appList != null) {
+            EventLog.getInstance().addObserver(this);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the journal file for appending records after the ones already in it
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        if (channel.size() > 0 && !endsWithNewLine()) {
+            channel.write(ByteBuffer.wrap(new byte[] {'\n'}));
+        }
+        savedLength = channel.size();
+    }
+
+    // EFFECTS: returns true if the last byte of the journal file is a line break, so that a torn record
+    // is never joined with the next one
+    private boolean endsWithNewLine() throws IOException {
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, channel.size() - 1);
+        return last.get(0) == '\n';
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes out the records not written yet and stops recording changes; throws IOException if the
+    // records could not be written
+    public synchronized void detach() throws IOException {
+        if (appList == null) {
+            return;
+        }
+        EventLog.getInstance().removeObserver(this);
+        appList = null;
+        try {
+            flush();
+        } finally {
+            close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: numbers the records not written yet, writes them out and forces them to disk, so every recorded change
+    // survives a crash. Can run on another thread while changes are recorded. Throws IOException if any record could
+    // not be written; the records are then kept to be written by the next flush and the file is left as it was
+    public synchronized void flush() throws IOException {
+        List<JSONObject> records;
+        synchronized (pending) {
+            records = new ArrayList<JSONObject>(pending);
+            pending.clear();
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        long written = sequence;
+        try {
+            write(records);
+        } catch (IOException e) {
+            sequence = written;
+            synchronized (pending) {
+                pending.addAll(0, records);
+            }
+            if (channel != null && channel.isOpen()) {
+                channel.truncate(savedLength);
+                channel.position(savedLength);
+            }
+            throw e;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: numbers the records, appends them to the journal file and forces it to disk
+    private void write(List<JSONObject> records) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (JSONObject record : records) {
+            sequence++;
+            record.put("seq", sequence);
+            lines.append(record.toString()).append('\n');
+        }
+        if (channel == null) {
+            open();
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(lines));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        savedLength = channel.position();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the journal file, if it is open
+    private void close() throws IOException {
+        if (channel != null) {
+            FileChannel open = channel;
+            channel = null;
+            open.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: flushes the journal, moves its file to segment and keeps recording to a new, empty journal file;
+    // the records in segment can then be folded into a full save while changes keep being recorded.
+    // Throws IOException if the journal could not be flushed or moved
+    public synchronized void rotate(String segment) throws IOException {
+        flush();
+        close();
+        try {
+            Files.move(path, Paths.get(segment), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            open();
+        }
+    }
+
+    // EFFECTS: returns the number of bytes of saved records in the journal file
+    public synchronized long length() throws IOException {
+        if (channel != null) {
+            return savedLength;
+        }
+        return Files.exists(path) ? Files.size(path) : 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops the records not written yet and stops recording changes, so only saved changes are replayed;
+    // throws IOException if the journal file cannot be closed
+    public synchronized void discard() throws IOException {
+        EventLog.getInstance().removeObserver(this);
+        appList = null;
+        synchronized (pending) {
+            pending.clear();
+        }
+        close();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: drops every record in the journal file, keeping the sequence numbers increasing and the records not
+    // written yet; meant to be called once the list has been saved in full. Throws IOException if the journal file
+    // cannot be truncated
+    public synchronized void reset() throws IOException {
+        if (channel != null) {
+            channel.truncate(0);
+            channel.force(true);
+            savedLength = 0;
+        } else if (!Files.exists(path) || Files.size(path) > 0) {
+            try (FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                file.truncate(0);
+                file.force(true);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the sequence number past every record already in the journal file without applying them;
+    // throws IOException if the journal file cannot be read
+    public synchronized void scan() throws IOException {
+        replay(null, Long.MAX_VALUE);
+    }
+
+    // MODIFIES: this, appList
+    // EFFECTS: applies every record with a sequence number above afterSequence to appList in order and returns
+    // the number of records applied; records about applications that are not in the list are skipped.
+    // A missing journal file holds no records. Throws IOException if the journal file cannot be read
+    public synchronized int replay(ApplicationList appList, long afterSequence) throws IOException {
+        sequence = Math.max(sequence, afterSequence == Long.MAX_VALUE ? 0 : afterSequence);
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JSONObject record = parseRecord(line);
+                if (record == null) {
+                    continue;
+                }
+                long seq = record.getLong("seq");
+                sequence = Math.max(sequence, seq);
+                if (appList != null && seq > afterSequence && applyKnown(appList, record, seq)) {
+                    applied++;
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+        return applied;
+    }
+
+    // EFFECTS: returns the record on the given line, or null if the line is blank or was torn by a crash
+    private JSONObject parseRecord(String line) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return new JSONObject(line);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    // MODIFIES: appList
+    // EFFECTS: applies the change the record numbered seq describes to appList and returns true, or skips the record
+    // and returns false if it describes a change the journal does not record, such as one from a newer version
+    private boolean applyKnown(ApplicationList appList, JSONObject record, long seq) {
+        EventType type;
+        try {
+            type = EventType.valueOf(record.optString("op"));
+        } catch (IllegalArgumentException e) {
+            type = null;
+        }
+        if (type == null || !JOURNALED.contains(type)) {
+            System.out.println("Skipping journal record " + seq + " of unknown change " + record.optString("op"));
+            return false;
+        }
+        apply(appList, type, record);
+        return true;
+    }
+
+    // MODIFIES: appList
+    // EFFECTS: applies the change of the given type the record describes to appList
+    private void apply(ApplicationList appList, EventType type, JSONObject record) {
+        if (type == EventType.APPLICATION_ADDED) {
+            int size = appList.getApplicationList().size();
+            int position = Math.max(0, Math.min(size, record.optInt("position", size)));
+            appList.addApplication(JsonReader.parseApplication(record.getJSONObject("application")), position);
+            return;
+        }
+        Application app = appList.searchByName(record.getString("name"));
+        if (app == null) {
+            return;
+        }
+        if (type == EventType.APPLICATION_REMOVED) {
+            appList.removeApplication(app);
+        } else {
+            applyToApplication(app, type, record);
+        }
+    }
+
+    // MODIFIES: app
+    // EFFECTS: applies the recorded change to the application or, for changes to requirements, to the requirement
+    private void applyToApplication(Application app, EventType type, JSONObject record) {
+        switch (type) {
+            case DEADLINE_SET:
+                setDeadline(app, record.getString("deadline"));
+                break;
+            case CATEGORY_SET:
+                app.setCategory(record.optString("category", null));
+                break;
+            case REQUIREMENT_ADDED:
+                app.addRequirement(JsonReader.parseRequirement(record.getJSONObject("requirement")));
+                break;
+            case REQUIREMENT_REMOVED:
+                app.removeRequirement(record.getString("requirement"));
+                break;
+            case STATUS_CHANGED:
+            case DOCUMENT_UPLOADED:
+            case DOCUMENT_DELETED:
+                applyToRequirement(app.getRequirement(record.getString("requirement")), type, record);
+                break;
+            default:
+                break;      // applyKnown only lets the changes above through
+        }
+    }
+
+    // MODIFIES: app
+    // EFFECTS: sets the recorded deadline of the application
+    private void setDeadline(Application app, String deadline) {
+        try {
+            app.setDeadline(deadline);
+        } catch (ParseException e) {
+            System.out.println("Problem parsing application deadline");
+        }
+    }
+
+    // MODIFIES: requirement
+    // EFFECTS: applies the recorded change to the requirement, if the application still has it
+    private void applyToRequirement(Requirement requirement, EventType type, JSONObject record) {
+        if (requirement == null) {
+            return;
+        }
+        if (type == EventType.STATUS_CHANGED) {
+            requirement.changeStatus(record.getBoolean("status"));
+        } else if (type == EventType.DOCUMENT_UPLOADED) {
+            requirement.uploadDocument(record.getString("document"));
+        } else if (type == EventType.DOCUMENT_DELETED) {
+            requirement.deleteUploadedDocument();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: keeps a record of the event to be written by the next flush if it changed the attached list
+    @Override
+    public void eventLogged(Event event) {
+        JSONObject record = toRecord(event);
+        if (record == null) {
+            return;
+        }
+        record.put("op", event.getType().name());
+        synchronized (pending) {
+            pending.add(record);
+        }
+    }
+
+    // EFFECTS: returns the record of the event without its sequence number and type, or null if the event
+    // did not change the attached list
+    private JSONObject toRecord(Event event) {
+        switch (event.getType()) {
+            case APPLICATION_ADDED:
+            case APPLICATION_REMOVED:
+                return listRecord(event);
+            case DEADLINE_SET:
+            case CATEGORY_SET:
+            case REQUIREMENT_ADDED:
+            case REQUIREMENT_REMOVED:
+                return applicationRecord(event);
+            case STATUS_CHANGED:
+            case DOCUMENT_UPLOADED:
+            case DOCUMENT_DELETED:
+                return requirementRecord(event);
+            default:
+                return null;
+        }
+    }
+
+    // EFFECTS: returns the record of an application being added to or removed from the attached list
+    private JSONObject listRecord(Event event) {
+        Application app = (Application) event.getArgument(1);
+        if (event.getArgument(0) != appList) {
+            return null;
+        }
+        JSONObject record = new JSONObject();
+        if (event.getType() == EventType.APPLICATION_ADDED) {
+            record.put("application", app.toJson());
+            record.put("position", event.getArgument(2));
+        } else if (appList.searchByName(app.getName()) == null) {
+            record.put("name", app.getName());
+        } else {
+            return null;        // the application was not in the list, so nothing was removed
+        }
+        return record;
+    }
+
+    // EFFECTS: returns the record of a change to an application in the attached list
+    private JSONObject applicationRecord(Event event) {
+        Application app = (Application) event.getArgument(0);
+        if (!isTracked(app)) {
+            return null;
+        }
+        JSONObject record = new JSONObject();
+        record.put("name", app.getName());
+        if (event.getType() == EventType.DEADLINE_SET) {
+            record.put("deadline", event.getArgument(1));
+        } else if (event.getType() == EventType.CATEGORY_SET) {
+            record.put("category", event.getArgument(1));
+        } else if (event.getType() == EventType.REQUIREMENT_ADDED) {
+            record.put("requirement", ((Requirement) event.getArgument(1)).toJson());
+        } else {
+            Requirement requirement = (Requirement) event.getArgument(1);
+            if (app.getRequirement(requirement.getName()) != null) {
+                return null;    // the requirement was not in the application, so nothing was removed
+            }
+            record.put("requirement", requirement.getName());
+        }
+        return record;
+    }
+
+    // EFFECTS: returns the record of a change to a requirement of an application in the attached list
+    private JSONObject requirementRecord(Event event) {
+        Requirement requirement = (Requirement) event.getArgument(0);
+        Application app = requirement.getApplication();
+        if (app == null || !isTracked(app)) {
+            return null;
+        }
+        JSONObject record = new JSONObject();
+        record.put("name", app.getName());
+        record.put("requirement", requirement.getName());
+        if (event.getType() == EventType.STATUS_CHANGED) {
+            record.put("status", event.getArgument(1));
+        } else if (event.getType() == EventType.DOCUMENT_UPLOADED) {
+            record.put("document", ((File) event.getArgument(1)).getPath());
+        }
+        return record;
+    }
+
+    // EFFECTS: returns true if the application is in the attached list; only the application itself is looked at,
+    // since the list may belong to another thread
+    private boolean isTracked(Application app) {
+        ApplicationList tracked = appList;
+        return tracked != null && app.hasObserver(tracked);
+    }
+}
@@ -0,0 +1,134 @@
+package persistence;
+
+import model.ApplicationList;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Represents a compactor that folds a journal segment into a fresh full save on a background thread
+// The full save is read, the segment is replayed on top of it and the result is saved atomically together with the
+// sequence number of the last record folded in, so a crash at any point leaves a full save and segment that
+// still load to the same list. The segment is deleted once it has been folded in.
+public class JournalCompactor {
+    public static final long DEFAULT_MAX_JOURNAL_BYTES = 1024 * 1024;
+    public static final long DEFAULT_MAX_JOURNAL_RECORDS = 1000;
+    private long maxJournalBytes;
+    private long maxJournalRecords;
+    private ExecutorService executor;       // created on the first compaction
+    private Future<?> running;              // the last compaction started, null if there was none
+
+    // EFFECTS: constructs a compactor with the default thresholds
+    public JournalCompactor() {
+        this(DEFAULT_MAX_JOURNAL_BYTES, DEFAULT_MAX_JOURNAL_RECORDS);
+    }
+
+    // EFFECTS: constructs a compactor that compacts once the journal holds more than maxJournalBytes bytes or
+    // more than maxJournalRecords records
+    public JournalCompactor(long maxJournalBytes, long maxJournalRecords) {
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxJournalRecords = maxJournalRecords;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the number of journal bytes above which the journal is compacted
+    public void setMaxJournalBytes(long maxJournalBytes) {
+        this.maxJournalBytes = maxJournalBytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the number of journal records above which the journal is compacted
+    public void setMaxJournalRecords(long maxJournalRecords) {
+        this.maxJournalRecords = maxJournalRecords;
+    }
+
+    public long getMaxJournalBytes() {
+        return maxJournalBytes;
+    }
+
+    public long getMaxJournalRecords() {
+        return maxJournalRecords;
+    }
+
+    // EFFECTS: returns true if a journal of the given size has crossed one of the thresholds
+    public boolean shouldCompact(long journalBytes, long journalRecords) {
+        return journalBytes > maxJournalBytes || journalRecords > maxJournalRecords;
+    }
+
+    // EFFECTS: returns true if a compaction has been started and has not finished yet
+    public synchronized boolean isRunning() {
+        return running != null && !running.isDone();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts folding the journal segment into the full save at source on the background thread;
+    // does nothing if a compaction is still running
+    public synchronized void compact(String source, String segment) {
+        if (isRunning()) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        running = executor.submit(() -> {
+            fold(source, segment);
+            return null;
+        });
+    }
+
+    // EFFECTS: waits for the running compaction to finish; throws IOException if it failed, in which case the
+    // segment is kept and still replayed on load
+    public void await() throws IOException {
+        Future<?> compaction;
+        synchronized (this) {
+            compaction = running;
+        }
+        if (compaction == null) {
+            return;
+        }
+        try {
+            compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the journal to be compacted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to compact the journal", e.getCause());
+        }
+    }
+
+    // EFFECTS: reads the full save at source, replays the segment on top of it, saves the result back to source
+    // in the format it was in and deletes the segment; documents are carried over without being checked. Throws
+    // IOException if any of the files cannot be read or written
+    static void fold(String source, String segment) throws IOException {
+        StorageFormat format = StorageFormat.detect(source);
+        ApplicationList appList;
+        long journalSequence;
+        if (format == StorageFormat.BINARY) {
+            BinaryReader reader = new BinaryReader(source);
+            reader.setLazyDocuments(true);
+            appList = reader.read();
+            journalSequence = reader.getJournalSequence();
+        } else if (format == StorageFormat.SHARDED) {
+            ShardedStore store = new ShardedStore(StorageFormat.shardDirectory(source));
+            appList = store.read();
+            journalSequence = store.getJournalSequence();
+        } else {
+            JsonReader reader = new JsonReader(source);
+            reader.setLazyDocuments(true);
+            appList = reader.read();
+            journalSequence = reader.getJournalSequence();
+        }
+        Journal journal = new Journal(segment);
+        journal.replay(appList, journalSequence);
+        format.save(source, appList, journal.getSequence());
+        Files.deleteIfExists(Paths.get(segment));
+    }
+}
@@ -1,12 +1,22 @@
 package persistence;
 
 
+import java.io.BufferedReader;
+import java.io.FilterReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.ParseException;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
 
 import model.Application;
 import model.ApplicationList;
@@ -14,61 +24,350 @@ import model.Requirement;
 import org.json.*;
 
 // Represents a reader that reads Application List from JSON data stored in file
+// The file is parsed as a stream: only the application that is currently being read is kept in memory as JSON,
+// so memory use does not grow with the size of the file. Files saved with a checksum trailer are verified.
+// With a parallelism above 1, a bounded number of applications are built on a fork/join pool while the file is still
+// being read (see ParallelApplicationLoader); the list comes out the same either way. With lazy documents, uploaded
+// document paths are recorded without looking at the disk and are left for a DocumentValidator to check.
+// With lazy requirements, only where each application's requirements are in the file is kept (see LazyRequirements)
+// and they are read the first time the application needs them, so reading takes time and memory in proportion to
+// the number of applications rather than the number of requirements. Such a list must only be saved atomically
+// (JsonWriter.setAtomic) while it still has requirements to read from the file, and the file stays open until the
+// reader is closed or reads again.
+// Files saved compressed (JsonWriter.setCompressed) are recognised by the gzip magic bytes and decompressed as they
+// are read, and verified against the CRC-32 that gzip stores; their requirements are always read with the list, as
+// they cannot be found again without decompressing.
+// A load listener is told about the applications a chunk at a time as they are added, with how much of the file has
+// been read, and a reading thread that is interrupted stops with an InterruptedIOException.
 // Based on: https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
 public class JsonReader {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] GZIP_MAGIC = {0x1f, (byte) 0x8b};
     private String source;
+    private long journalSequence;       // the journal sequence number stored in the last file read
+    private int parallelism;            // the number of threads applications are built on
+    private boolean lazyDocuments;      // whether document paths are recorded without being checked
+    private boolean lazyRequirements;   // whether requirements are left in the file until they are needed
+    private DocumentValidator documentValidator;    // where requirements read later are checked, or null
+    private CountingReader counter;     // counts the bytes read so far while reading with lazy requirements
+    private LazyRequirements.Source requirementSource;  // the file the requirements are left in, or null
+    private boolean requirementsLeft;   // whether any requirements were left in the file while reading
+    private LoadListener loadListener;  // told about the applications as they are read, or null
+    private FileChannel channel;        // the file being read, whose position tells how much has been read
 
     // EFFECTS: constructs reader to read from source file
     public JsonReader(String source) {
         this.source = source;
+        this.journalSequence = 0;
+        this.parallelism = 1;
     }
 
-    // EFFECTS: reads list of applications from file and returns it;
-    // throws IOException if an error occurs reading data from file
+    // MODIFIES: this
+    // EFFECTS: sets the number of threads applications are built on; 1 (the default) builds them one after another
+    // on the thread that reads the file
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if lazyDocuments is true, uploaded documents are recorded without checking that the files are there,
+    // otherwise documents that are not readable files are left out as they are read (the default)
+    public void setLazyDocuments(boolean lazyDocuments) {
+        this.lazyDocuments = lazyDocuments;
+    }
+
+    public boolean isLazyDocuments() {
+        return lazyDocuments;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if lazyRequirements is true, the requirements of each application are left in the file and only read
+    // the first time the application needs them, otherwise they are all read with the list (the default)
+    public void setLazyRequirements(boolean lazyRequirements) {
+        this.lazyRequirements = lazyRequirements;
+    }
+
+    public boolean isLazyRequirements() {
+        return lazyRequirements;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the validator that requirements read later, with lazy requirements, are handed to; null for none
+    public void setDocumentValidator(DocumentValidator documentValidator) {
+        this.documentValidator = documentValidator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener that is told about the applications as they are read; null for none
+    public void setLoadListener(LoadListener loadListener) {
+        this.loadListener = loadListener;
+    }
+
+    // EFFECTS: returns the sequence number of the last journal record already included in the file that was
+    // read last, or 0 if the file did not record one
+    public long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // EFFECTS: reads list of applications from file and returns it, then closes the file the list read before left
+    // its requirements in; throws IOException if an error occurs reading data from file or if the file has a
+    // checksum trailer that does not match its contents, in which case the lists read before can still read theirs
     public ApplicationList read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseApplicationList(jsonObject);
+        LazyRequirements.Source previous = requirementSource;
+        requirementSource = null;
+        ApplicationList appList;
+        try {
+            appList = readList();
+        } catch (IOException | RuntimeException e) {
+            requirementSource = previous;
+            throw e;
+        }
+        if (previous != null) {
+            previous.close();
+        }
+        return appList;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads list of applications from file and returns it; the file the list read before left its
+    // requirements in is neither used nor closed
+    private ApplicationList readList() throws IOException {
+        journalSequence = 0;
+        if (lazyRequirements && !isCompressed(source)) {
+            return readLazily();
+        }
+        try (Reader reader = openReader(source)) {
+            ApplicationList appList = parseApplicationList(new JSONTokener(reader));
+            drain(reader);
+            return appList;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads list of applications from file, leaving their requirements in the file, and returns it;
+    // the file is kept open until close or the next successful read if some requirements are still to be read from it
+    private ApplicationList readLazily() throws IOException {
+        requirementSource = new LazyRequirements.Source(source,
+                FileChannel.open(Paths.get(source), StandardOpenOption.READ), lazyDocuments, documentValidator);
+        requirementsLeft = false;
+        try (CountingReader reader = new CountingReader(openReader(source))) {
+            counter = reader;
+            ApplicationList appList = parseApplicationList(new JSONTokener(reader));
+            drain(reader);
+            return appList;
+        } catch (IOException | RuntimeException e) {
+            requirementsLeft = false;
+            throw e;
+        } finally {
+            if (!requirementsLeft) {
+                close();
+            }
+            counter = null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file the requirements of the list read last were left in, if any; requirements that
+    // were not read yet can no longer be read. Throws IOException if the file could not be closed
+    public void close() throws IOException {
+        LazyRequirements.Source open = requirementSource;
+        requirementSource = null;
+        if (open != null) {
+            open.close();
+        }
+    }
+
+    // EFFECTS: opens a buffered UTF-8 reader over a channel to the source file that leaves out and checks
+    // the checksum trailer if there is one, and decompresses the JSON if it was saved compressed
+    private Reader openReader(String source) throws IOException {
+        channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ);
+        PushbackInputStream in = new PushbackInputStream(
+                new ChecksumInputStream(Channels.newInputStream(channel)), GZIP_MAGIC.length);
+        byte[] start = new byte[GZIP_MAGIC.length];
+        int read = in.readNBytes(start, 0, start.length);
+        in.unread(start, 0, read);
+        InputStream json = Arrays.equals(start, GZIP_MAGIC) ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+        return new BufferedReader(new InputStreamReader(json, StandardCharsets.UTF_8), BUFFER_SIZE);
     }
 
-    // EFFECTS: reads source file as string and returns it
-    private String readFile(String source) throws IOException {
-        StringBuilder contentBuilder = new StringBuilder();
+    // EFFECTS: returns how far into the file the channel has read, or 0 if it cannot tell
+    private static long position(FileChannel file) {
+        try {
+            return file.position();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
 
-        try (Stream<String> stream = Files.lines(Paths.get(source), StandardCharsets.UTF_8)) {
-            stream.forEach(s -> contentBuilder.append(s));
+    // EFFECTS: returns true if the file at source was saved compressed; throws IOException if it cannot be read
+    static boolean isCompressed(String source) throws IOException {
+        byte[] start = new byte[GZIP_MAGIC.length];
+        try (InputStream in = Files.newInputStream(Paths.get(source))) {
+            return in.readNBytes(start, 0, start.length) == start.length && Arrays.equals(start, GZIP_MAGIC);
         }
+    }
 
-        return contentBuilder.toString();
+    // EFFECTS: reads whatever follows the JSON up to the end of the file so that the checksum gets verified
+    private void drain(Reader reader) throws IOException {
+        char[] rest = new char[BUFFER_SIZE];
+        while (reader.read(rest) != -1) {
+            // only trailing whitespace is expected here
+        }
     }
 
-    // EFFECTS: parses ApplicationList from JSON object and returns it
-    private ApplicationList parseApplicationList(JSONObject jsonObject) {
-        //String name = jsonObject.getString("name");
+    // MODIFIES: this
+    // EFFECTS: parses ApplicationList from the JSON object the tokener is positioned at and returns it;
+    // remembers the journal sequence number and skips every other key
+    private ApplicationList parseApplicationList(JSONTokener tokener) throws IOException {
         ApplicationList appList = new ApplicationList();
-        addApplications(appList, jsonObject);
+        boolean more = beginObject(tokener);
+        while (more) {
+            parseListMember(appList, nextKey(tokener), tokener);
+            more = nextMember(tokener);
+        }
         return appList;
     }
 
-    // MODIFIES: appList
-    // EFFECTS: parses applications from JSON object and adds them to the list
-    private void addApplications(ApplicationList appList, JSONObject jsonObject) {
-        JSONArray jsonArray = jsonObject.getJSONArray("applications");
-        for (Object json : jsonArray) {
-            JSONObject nextApp = (JSONObject) json;
-            addApplication(appList, nextApp);
+    // MODIFIES: this, appList
+    // EFFECTS: parses the value of the key in the application list object the tokener is positioned at
+    private void parseListMember(ApplicationList appList, String key, JSONTokener tokener) throws IOException {
+        if (key.equals("applications")) {
+            addApplications(appList, tokener);
+        } else if (key.equals(JsonWriter.JOURNAL_SEQUENCE_KEY)) {
+            journalSequence = ((Number) tokener.nextValue()).longValue();
+        } else {
+            tokener.nextValue();
+        }
+    }
+
+    // EFFECTS: moves the tokener past the '{' that starts an object; returns false if the object is empty
+    private static boolean beginObject(JSONTokener tokener) {
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("A JSONObject text must begin with '{'");
+        }
+        if (tokener.nextClean() == '}') {
+            return false;
+        }
+        tokener.back();
+        return true;
+    }
+
+    // EFFECTS: reads the quoted key of the next member of an object and the ':' after it, and returns the key
+    private static String nextKey(JSONTokener tokener) {
+        if (tokener.nextClean() != '"') {
+            throw tokener.syntaxError("Expected a quoted key");
         }
+        String key = tokener.nextString('"');
+        if (tokener.nextClean() != ':') {
+            throw tokener.syntaxError("Expected a ':' after a key");
+        }
+        return key;
+    }
+
+    // EFFECTS: reads the ',' or '}' after a member of an object; returns true if another member follows
+    private static boolean nextMember(JSONTokener tokener) {
+        char next = tokener.nextClean();
+        if (next != ',' && next != '}') {
+            throw tokener.syntaxError("Expected a ',' or '}'");
+        }
+        return next == ',';
     }
 
     // MODIFIES: appList
-    // EFFECTS: parses application from JSON object and adds it to workroom
-    private void addApplication(ApplicationList appList, JSONObject jsonObject) {
+    // EFFECTS: parses the applications array the tokener is positioned at one application at a time and adds them
+    // to the list, building them on parallelism threads
+    private void addApplications(ApplicationList appList, JSONTokener tokener) throws IOException {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+        if (tokener.nextClean() == ']') {
+            return;
+        }
+        tokener.back();
+        try (ParallelApplicationLoader loader = new ParallelApplicationLoader(appList, parallelism,
+                lazyDocuments)) {
+            FileChannel file = channel;
+            loader.setListener(loadListener, () -> position(file), file.size());
+            while (true) {
+                loader.add(counter != null ? parseLazyApplication(tokener) : new JSONObject(tokener));
+                char next = tokener.nextClean();
+                if (next == ']') {
+                    loader.finish();
+                    return;
+                } else if (next != ',') {
+                    throw tokener.syntaxError("Expected a ',' or ']'");
+                }
+            }
+        }
+    }
+
+    // EFFECTS: parses the application object the tokener is positioned at like JSONObject does, except that a
+    // non-empty array of required documents is skipped and put in the object as the LazyRequirements to read it from
+    private JSONObject parseLazyApplication(JSONTokener tokener) {
+        JSONObject jsonObject = new JSONObject();
+        boolean more = beginObject(tokener);
+        while (more) {
+            String key = nextKey(tokener);
+            jsonObject.put(key, key.equals("required documents") ? skipRequirements(tokener) : tokener.nextValue());
+            more = nextMember(tokener);
+        }
+        return jsonObject;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: skips the array of required documents the tokener is positioned at and returns the LazyRequirements
+    // that read it from the file later, or an empty array if there are none
+    private Object skipRequirements(JSONTokener tokener) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+        long start = counter.getBytes() - 1;
+        if (skipArray(tokener)) {
+            return new JSONArray();
+        }
+        requirementsLeft = true;
+        return new LazyRequirements(requirementSource, start, (int) (counter.getBytes() - start));
+    }
+
+    // EFFECTS: moves the tokener past the rest of the array whose '[' it has just read, nested arrays and objects
+    // included; returns true if the array is empty
+    private static boolean skipArray(JSONTokener tokener) {
+        boolean empty = true;
+        int depth = 1;
+        while (depth > 0) {
+            char next = tokener.next();
+            if (next == 0) {
+                throw tokener.syntaxError("Unterminated array of required documents");
+            } else if (next == '"') {
+                tokener.nextString('"');
+            } else if (next == '[' || next == '{') {
+                depth++;
+            } else if (next == ']' || next == '}') {
+                depth--;
+            }
+            empty = empty && (depth == 0 || Character.isWhitespace(next));
+        }
+        return empty;
+    }
+
+    // EFFECTS: parses application from JSON object and returns it, leaving out documents that are not readable files
+    static Application parseApplication(JSONObject jsonObject) {
+        return parseApplication(jsonObject, false);
+    }
+
+    // EFFECTS: parses application from JSON object and returns it; if lazyDocuments is true, document paths are
+    // recorded without being checked. If the required documents are LazyRequirements, they are left to be read
+    // the first time the application needs them
+    static Application parseApplication(JSONObject jsonObject, boolean lazyDocuments) {
         String name = jsonObject.getString("name");
         Boolean status = jsonObject.getBoolean("status");
         int progress = jsonObject.getInt("progress");
         String category = jsonObject.getString("category");
         String deadline = jsonObject.getString("deadline");
-        JSONArray jsonArray = jsonObject.getJSONArray("required documents");
         Application application = new Application(name);
         application.setCategory(category);
         try {
@@ -78,22 +377,108 @@ public class JsonReader {
         }
         application.setStatus(status);
         application.setProgress(progress);
-        for (Object json : jsonArray) {
+        addRequirements(application, jsonObject.get("required documents"), lazyDocuments);
+        return application;
+    }
+
+    // MODIFIES: application
+    // EFFECTS: adds the required documents to the application, or leaves them to be read later if they are
+    // LazyRequirements
+    private static void addRequirements(Application application, Object requiredDocuments, boolean lazyDocuments) {
+        if (requiredDocuments instanceof LazyRequirements) {
+            application.setRequirementLoader((LazyRequirements) requiredDocuments);
+            return;
+        }
+        if (!(requiredDocuments instanceof JSONArray)) {
+            throw new JSONException("JSONObject[\"required documents\"] is not a JSONArray.");
+        }
+        for (Object json : (JSONArray) requiredDocuments) {
             JSONObject nextReq = (JSONObject) json;
-            addRequirement(application, nextReq);
+            application.addRequirement(parseRequirement(nextReq, lazyDocuments));
         }
-        appList.addApplication(application);
     }
 
-    // MODIFIES: application
-    // EFFECTS: parses requirements from JSON object and adds it to the application
-    private void addRequirement(Application app, JSONObject jsonObject) {
+    // EFFECTS: parses requirement from JSON object and returns it, leaving out the document if it is not
+    // a readable file
+    static Requirement parseRequirement(JSONObject jsonObject) {
+        return parseRequirement(jsonObject, false);
+    }
+
+    // EFFECTS: parses requirement from JSON object and returns it; if lazyDocuments is true, the document path is
+    // recorded without being checked
+    static Requirement parseRequirement(JSONObject jsonObject, boolean lazyDocuments) {
         String name = jsonObject.getString("name");
         Boolean status = jsonObject.getBoolean("status");
         String document = jsonObject.getString("uploaded document");
         Requirement requirement = new Requirement(name);
         requirement.changeStatus(status);
-        requirement.uploadDocument(document);
-        app.addRequirement(requirement);
+        if (lazyDocuments) {
+            requirement.recordDocument(document);
+        } else {
+            requirement.uploadDocument(document);
+        }
+        return requirement;
+    }
+
+    // Represents a reader that counts how many bytes of UTF-8 the characters it has read take up, which is where
+    // the next character starts in the file
+    // It passes on mark support from the reader it wraps: JSONTokener only reads straight from readers that support
+    // marks and buffers any other reader, which would read ahead and count characters the tokener has not reached.
+    private static final class CountingReader extends FilterReader {
+        private long bytes;
+        private long markedBytes;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                bytes += utf8Length((char) c);
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            for (int i = offset; i < offset + count; i++) {
+                bytes += utf8Length(buffer[i]);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            throw new IOException("skip is not supported");
+        }
+
+        @Override
+        public void mark(int readAheadLimit) throws IOException {
+            super.mark(readAheadLimit);
+            markedBytes = bytes;
+        }
+
+        @Override
+        public void reset() throws IOException {
+            super.reset();
+            bytes = markedBytes;
+        }
+
+        // EFFECTS: returns the number of bytes c takes up in UTF-8; each half of a surrogate pair counts for 2
+        private static int utf8Length(char c) {
+            if (c < 0x80) {
+                return 1;
+            } else if (c < 0x800 || Character.isSurrogate(c)) {
+                return 2;
+            }
+            return 3;
+        }
     }
-}
\ No newline at end of file
+}
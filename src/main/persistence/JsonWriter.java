@@ -1,46 +1,191 @@
 package persistence;
 
+import model.Application;
 import model.ApplicationList;
-import org.json.JSONObject;
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 // Represents a writer that writes JSON representation of application list to file
+// Applications are serialized one at a time straight to the file, so the JSON of the whole list never has to be
+// held in memory. Compressed files are gzip streams, so they can also be opened with any gzip tool; the checksum
+// trailer, if enabled, comes after the compressed bytes.
 public class JsonWriter {
+    static final String JOURNAL_SEQUENCE_KEY = "journal sequence";
     private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
     private PrintWriter writer;
     private String destination;
+    private boolean compact;
+    private boolean atomic;
+    private boolean checksum;
+    private boolean compressed;
+    private int compressionLevel;
+    private long journalSequence;           // the last journal record included in the save, 0 for none
+    private SaveOutputStream output;        // the file being written
+    private Compressor compressor;          // compresses the JSON on its way to output, null if not compressed
 
-    // EFFECTS: constructs writer to write to destination file
+    // EFFECTS: constructs writer to write indented JSON to destination file
     public JsonWriter(String destination) {
         this.destination = destination;
+        this.compact = false;
+        this.atomic = false;
+        this.checksum = false;
+        this.compressed = false;
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+        this.journalSequence = 0;
     }
 
     // MODIFIES: this
-    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
+    // EFFECTS: if compact is true, the JSON is written without any indentation or line breaks,
+    // otherwise it is indented by TAB spaces per level
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if atomic is true, the JSON is written to a temporary file next to the destination that is flushed
+    // to disk and then moved over the destination on close, so the destination always holds a complete save
+    public void setAtomic(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if checksum is true, a CRC-32 trailer is appended after the JSON that JsonReader verifies on read
+    public void setChecksum(boolean checksum) {
+        this.checksum = checksum;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if compressed is true, the JSON is compressed with gzip as it is written; JsonReader recognises
+    // compressed files and decompresses them on read
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the gzip compression level, from 1 (fastest) to 9 (smallest), or Deflater.DEFAULT_COMPRESSION;
+    // throws IllegalArgumentException for any other level
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel != Deflater.DEFAULT_COMPRESSION
+                && (compressionLevel < Deflater.BEST_SPEED || compressionLevel > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if journalSequence is positive, the file records that it already includes every journal record up to
+    // that sequence number, so replaying the journal on top of it skips them
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws IOException if destination file cannot
     // be opened for writing
-    public void open() throws FileNotFoundException {
-        writer = new PrintWriter(new File(destination));
+    public void open() throws IOException {
+        output = new SaveOutputStream(destination, atomic, checksum);
+        compressor = null;
+        OutputStream json = output;
+        if (compressed) {
+            try {
+                compressor = new Compressor(output, compressionLevel);
+            } catch (IOException e) {
+                output.close();
+                throw e;
+            }
+            json = compressor;
+        }
+        writer = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(json, StandardCharsets.UTF_8), BUFFER_SIZE));
     }
 
     // MODIFIES: this
     // EFFECTS: writes JSON representation of application list to file
     public void write(ApplicationList appList) {
-        JSONObject json = appList.toJson();
-        saveToFile(json.toString(TAB));
+        int indentFactor = compact ? 0 : TAB;
+        writer.write('{');
+        if (journalSequence > 0) {
+            writer.write(compact ? "\"" + JOURNAL_SEQUENCE_KEY + "\":" + journalSequence + ","
+                    : "\"" + JOURNAL_SEQUENCE_KEY + "\": " + journalSequence + ", ");
+        }
+        writer.write(compact ? "\"applications\":[" : "\"applications\": [");
+        writeApplications(appList.getApplicationList(), indentFactor);
+        writer.write("]}");
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: writes the applications separated by commas, laid out the same way JSONArray.toString does
+    private void writeApplications(List<Application> applications, int indentFactor) {
+        if (applications.size() == 1) {
+            applications.get(0).toJson().write(writer, indentFactor, 0);
+        } else if (applications.size() > 1) {
+            boolean needsComma = false;
+            for (Application app : applications) {
+                if (needsComma) {
+                    writer.write(',');
+                }
+                newLineAndIndent(indentFactor, indentFactor);
+                app.toJson().write(writer, indentFactor, indentFactor);
+                needsComma = true;
+            }
+            newLineAndIndent(indentFactor, 0);
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: unless the output is compact, starts a new line indented by the given number of spaces
+    private void newLineAndIndent(int indentFactor, int indent) {
+        if (indentFactor > 0) {
+            writer.write('\n');
+            for (int i = 0; i < indent; i++) {
+                writer.write(' ');
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the checksum trailer if it is enabled and closes writer; in atomic mode also forces the file
+    // to disk and moves it over the destination; throws IOException if anything could not be written, in which
+    // case an atomic save leaves the destination untouched
+    public void close() throws IOException {
+        try {
+            writer.flush();
+            if (writer.checkError()) {
+                throw new IOException("Unable to write to file: " + destination);
+            }
+            if (compressor != null) {
+                compressor.finish();
+            }
+            output.commit();
+        } finally {
+            writer.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer without committing what was written; an atomic save leaves the destination untouched
+    public void abort() {
+        writer.close();
+    }
+
+    // Represents a gzip stream that compresses at a chosen level
+    private static final class Compressor extends GZIPOutputStream {
+        Compressor(OutputStream out, int level) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(level);
+        }
     }
 }
@@ -0,0 +1,100 @@
+package persistence;
+
+import model.Requirement;
+import model.RequirementLoader;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents the required documents of one application, left in the file the application was read from
+// Only where the JSON array of the requirements starts in the file and how long it is are kept; the array is read
+// and parsed the first time the application needs its requirements. Loaded requirements are handed to the document
+// validator, if there is one, so their documents are checked as they are loaded.
+final class LazyRequirements implements RequirementLoader {
+    private final Source source;
+    private final long offset;          // where the array starts in the file, in bytes
+    private final int length;           // the length of the array in bytes
+
+    // EFFECTS: constructs the requirements found at offset in source, length bytes long
+    LazyRequirements(Source source, long offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    // EFFECTS: reads and parses the requirements; throws UncheckedIOException if the file can no longer be read
+    // or has changed since it was loaded
+    @Override
+    public List<Requirement> loadRequirements() {
+        JSONArray jsonArray;
+        try {
+            jsonArray = new JSONArray(source.read(offset, length));
+        } catch (JSONException e) {
+            throw new UncheckedIOException(new IOException("Unable to parse requirements in " + source.name, e));
+        }
+        List<Requirement> requirements = new ArrayList<Requirement>(jsonArray.length());
+        for (Object json : jsonArray) {
+            requirements.add(JsonReader.parseRequirement((JSONObject) json, source.lazyDocuments));
+        }
+        if (source.validator != null) {
+            source.validator.validate(requirements);
+        }
+        return requirements;
+    }
+
+    // Represents the file a list was read from with lazy requirements
+    // The file is kept open, so it can still be read after a save has replaced it with a newer file, until the reader
+    // that read the list closes it.
+    static final class Source implements Closeable {
+        private final String name;
+        private final FileChannel channel;
+        private final long size;                    // the size of the file when it was read
+        private final boolean lazyDocuments;        // whether document paths are recorded without being checked
+        private final DocumentValidator validator;  // where loaded requirements are checked, or null
+
+        // EFFECTS: constructs the source of requirements read from the file name through channel
+        Source(String name, FileChannel channel, boolean lazyDocuments, DocumentValidator validator)
+                throws IOException {
+            this.name = name;
+            this.channel = channel;
+            this.size = channel.size();
+            this.lazyDocuments = lazyDocuments;
+            this.validator = validator;
+        }
+
+        // EFFECTS: closes the file
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        // EFFECTS: returns the UTF-8 text of length bytes starting at offset; throws UncheckedIOException if the
+        // file cannot be read, has been closed or has changed size since it was read
+        String read(long offset, int length) {
+            try {
+                if (channel.size() != size) {
+                    throw new IOException("The file " + name + " changed since it was read");
+                }
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0) {
+                        throw new EOFException("Unexpected end of " + name);
+                    }
+                }
+                return new String(buffer.array(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
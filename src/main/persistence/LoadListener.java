@@ -0,0 +1,12 @@
+package persistence;
+
+import model.Application;
+
+import java.util.List;
+
+// Represents something that is told how far loading an application list has got
+public interface LoadListener {
+    // EFFECTS: reacts to the applications having just been added to the list being loaded, in order, once bytesRead
+    // of the totalBytes in the file have been read; called on the loading thread
+    void applicationsLoaded(List<Application> applications, long bytesRead, long totalBytes);
+}
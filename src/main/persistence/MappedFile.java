@@ -0,0 +1,86 @@
+package persistence;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Represents the contents of a file mapped read-only into memory, without its checksum trailer if it has one
+// The file is mapped in regions of at most 1 GiB, so files of any size can be mapped. Nothing is read when the file
+// is mapped: the operating system pages the contents in as they are looked at and shares the pages with every
+// other process that maps or reads the same file. The mapping stays valid after the file is replaced by a rename,
+// but the file must not be truncated or written in place while it is mapped.
+final class MappedFile {
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+    private final String name;
+    private final MappedByteBuffer[] regions;
+    private final long size;                // the size of the contents, without the trailer
+
+    // EFFECTS: constructs the contents of the file name, size bytes long, mapped in regions
+    private MappedFile(String name, MappedByteBuffer[] regions, long size) {
+        this.name = name;
+        this.regions = regions;
+        this.size = size;
+    }
+
+    // EFFECTS: maps the file at source; throws IOException if it cannot be opened or mapped
+    static MappedFile map(String source) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((fileSize + REGION_MASK) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << REGION_SHIFT;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(fileSize - start, REGION_MASK + 1));
+            }
+            MappedFile file = new MappedFile(source, regions, fileSize);
+            if (fileSize >= ChecksumInputStream.TRAILER_LENGTH) {
+                byte[] tail = new byte[ChecksumInputStream.TRAILER_LENGTH];
+                file.get(fileSize - tail.length, tail, 0, tail.length);
+                if (ChecksumInputStream.parseTrailer(tail, 0) >= 0) {
+                    return new MappedFile(source, regions, fileSize - tail.length);
+                }
+            }
+            return file;
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    long size() {
+        return size;
+    }
+
+    // EFFECTS: returns the byte at position; throws EOFException if it is past the end of the contents
+    byte get(long position) throws EOFException {
+        if (position < 0 || position >= size) {
+            throw new EOFException("Unexpected end of " + name);
+        }
+        return regions[(int) (position >>> REGION_SHIFT)].get((int) (position & REGION_MASK));
+    }
+
+    // MODIFIES: bytes
+    // EFFECTS: copies length bytes starting at position into bytes at off; throws EOFException if they go past
+    // the end of the contents
+    void get(long position, byte[] bytes, int off, int length) throws EOFException {
+        if (position < 0 || length > size - position) {
+            throw new EOFException("Unexpected end of " + name);
+        }
+        while (length > 0) {
+            ByteBuffer region = regions[(int) (position >>> REGION_SHIFT)].duplicate();
+            int start = (int) (position & REGION_MASK);
+            int count = Math.min(length, region.capacity() - start);
+            region.position(start);
+            region.get(bytes, off, count);
+            position += count;
+            off += count;
+            length -= count;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package persistence;
+
+import model.Requirement;
+import model.RequirementLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Represents the required documents of one application, left in the mapped binary file the application was read from
+// Only where the block of requirements starts in the file and how long it is are kept; the block is decoded the
+// first time the application needs its requirements. Loaded requirements are handed to the document validator, if
+// there is one, so their documents are checked as they are loaded.
+final class MappedRequirements implements RequirementLoader {
+    private final Source source;
+    private final long offset;          // where the block starts in the file, in bytes
+    private final int length;           // the length of the block in bytes
+
+    // EFFECTS: constructs the requirements found at offset in source, length bytes long
+    MappedRequirements(Source source, long offset, int length) {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    // EFFECTS: decodes the requirements; throws UncheckedIOException if the block cannot be decoded
+    @Override
+    public List<Requirement> loadRequirements() {
+        List<Requirement> requirements;
+        try {
+            BinaryDecoder in = source.decoderAt(offset);
+            int count = in.readCount();
+            requirements = new ArrayList<Requirement>(Math.min(count, length));
+            for (int i = 0; i < count; i++) {
+                requirements.add(BinaryReader.readRequirement(in, source.lazyDocuments));
+            }
+            if (in.position() != offset + length) {
+                throw new IOException("Malformed requirements in " + source.file.getName());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (source.validator != null) {
+            source.validator.validate(requirements);
+        }
+        return requirements;
+    }
+
+    // Represents the mapped file a list was read from with its requirements left in it
+    // The mapping is released once the list, and with it every application that still has requirements to decode,
+    // is garbage collected. Strings that requirements refer to are decoded once and shared.
+    static final class Source {
+        private final MappedFile file;
+        private final Map<Long, String> strings;    // the strings referred to so far, by where they were written
+        private final boolean lazyDocuments;        // whether document paths are recorded without being checked
+        private final DocumentValidator validator;  // where loaded requirements are checked, or null
+
+        // EFFECTS: constructs the source of requirements in file
+        Source(MappedFile file, boolean lazyDocuments, DocumentValidator validator) {
+            this.file = file;
+            this.strings = new ConcurrentHashMap<Long, String>();
+            this.lazyDocuments = lazyDocuments;
+            this.validator = validator;
+        }
+
+        // EFFECTS: returns a decoder that starts at position in the file
+        BinaryDecoder.Mapped decoderAt(long position) {
+            return new BinaryDecoder.Mapped(file, position, strings);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import org.json.JSONObject;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.LongSupplier;
+
+// Represents a loader that builds applications from their JSON objects on a fork/join pool and adds them to
+// an application list in the order they were read
+// The JSON objects are collected into chunks as the reader goes; each full chunk is built on the pool while
+// the reader carries on, so parsing deadlines and checking uploaded documents is spread over the cores. Built
+// chunks are added to the list on the reading thread, oldest first, so the list comes out exactly as a sequential
+// load makes it. At most twice as many chunks as there are workers are in flight, which keeps memory bounded,
+// and the pool is only started once a chunk fills up, so small files are loaded without any extra threads.
+// With a parallelism of 1 every application is built and added as soon as it is read. A listener is told about the
+// applications a chunk at a time as they are added, and an interrupted reading thread stops at the next chunk.
+final class ParallelApplicationLoader implements AutoCloseable {
+    static final int CHUNK_SIZE = 256;
+    private final ApplicationList appList;
+    private final int parallelism;
+    private final boolean lazyDocuments;                            // whether document paths are left unchecked
+    private final Deque<ForkJoinTask<List<Application>>> pending;  // chunks being built, oldest first
+    private List<JSONObject> chunk;                                 // the chunk being collected
+    private ForkJoinPool pool;                                      // null until the first chunk fills
+    private LoadListener listener;                                  // told about added applications, or null
+    private LongSupplier bytesRead;                                 // how much of the file has been read so far
+    private long totalBytes;
+    private List<Application> added;                                // added and not reported yet, parallelism 1
+
+    // EFFECTS: constructs a loader that adds applications to appList, building them on parallelism workers,
+    // or on the calling thread if parallelism is 1; if lazyDocuments is true, document paths are not checked
+    ParallelApplicationLoader(ApplicationList appList, int parallelism, boolean lazyDocuments) {
+        this.appList = appList;
+        this.parallelism = parallelism;
+        this.lazyDocuments = lazyDocuments;
+        pending = new ArrayDeque<ForkJoinTask<List<Application>>>();
+        chunk = new ArrayList<JSONObject>(CHUNK_SIZE);
+        added = new ArrayList<Application>(CHUNK_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells listener about the applications as they are added, with bytesRead of the totalBytes in the
+    // file read by then; null for no listener
+    void setListener(LoadListener listener, LongSupplier bytesRead, long totalBytes) {
+        this.listener = listener;
+        this.bytesRead = bytesRead;
+        this.totalBytes = totalBytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues the JSON object of the next application; once a chunk is full, starts building it and adds
+    // every chunk that is already built to the list. Throws InterruptedIOException if interrupted while waiting
+    // for a chunk, or rethrows whatever building an application threw
+    void add(JSONObject json) throws InterruptedIOException {
+        if (parallelism == 1) {
+            Application application = JsonReader.parseApplication(json, lazyDocuments);
+            appList.addApplication(application);
+            added.add(application);
+            if (added.size() == CHUNK_SIZE) {
+                report(added);
+                added = new ArrayList<Application>(CHUNK_SIZE);
+            }
+            return;
+        }
+        chunk.add(json);
+        if (chunk.size() < CHUNK_SIZE) {
+            return;
+        }
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism);
+        }
+        List<JSONObject> full = chunk;
+        pending.addLast(pool.submit(() -> build(full)));
+        chunk = new ArrayList<JSONObject>(CHUNK_SIZE);
+        while (pending.size() > 2 * parallelism || (!pending.isEmpty() && pending.peekFirst().isDone())) {
+            addOldest();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: builds the last, partly filled chunk on this thread and adds every remaining application to the list
+    // in order; throws InterruptedIOException if interrupted while waiting, or rethrows whatever building an
+    // application threw
+    void finish() throws InterruptedIOException {
+        List<Application> last = build(chunk);
+        while (!pending.isEmpty()) {
+            addOldest();
+        }
+        addAll(last);
+        chunk = new ArrayList<JSONObject>(CHUNK_SIZE);
+        report(added);
+        added = new ArrayList<Application>(CHUNK_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops the workers; chunks that were not added yet are dropped
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for the oldest chunk in flight and adds its applications to the list
+    private void addOldest() throws InterruptedIOException {
+        ForkJoinTask<List<Application>> task = pending.removeFirst();
+        try {
+            addAll(task.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading applications");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds the applications to the list in order and tells the listener; throws InterruptedIOException
+    // if the reading thread was interrupted
+    private void addAll(List<Application> applications) throws InterruptedIOException {
+        for (Application application : applications) {
+            appList.addApplication(application);
+        }
+        report(applications);
+    }
+
+    // EFFECTS: tells the listener that the applications were added, unless there are none; throws
+    // InterruptedIOException if the reading thread was interrupted, so that a cancelled load stops
+    private void report(List<Application> applications) throws InterruptedIOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Interrupted while loading applications");
+        }
+        if (listener != null && !applications.isEmpty()) {
+            listener.applicationsLoaded(applications, bytesRead.getAsLong(), totalBytes);
+        }
+    }
+
+    // EFFECTS: builds the applications of a chunk in order
+    private List<Application> build(List<JSONObject> jsons) {
+        List<Application> applications = new ArrayList<Application>(jsons.size());
+        for (JSONObject json : jsons) {
+            applications.add(JsonReader.parseApplication(json, lazyDocuments));
+        }
+        return applications;
+    }
+}
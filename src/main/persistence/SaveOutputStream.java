@@ -0,0 +1,119 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+// Represents the stream a save is written to, whatever its format
+// In atomic mode the bytes go to a temporary file next to the destination that is forced to disk and moved over
+// the destination once the save is committed, so the destination always holds a complete save. With a checksum,
+// the trailer that ChecksumInputStream verifies is appended on commit.
+// Sources:
+//     Atomic file replacement - https://docs.oracle.com/javase/8/docs/api/java/nio/file/Files.html#move-java.nio.file.Path-java.nio.file.Path-java.nio.file.CopyOption...-
+class SaveOutputStream extends OutputStream {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private final String destination;
+    private final boolean atomic;
+    private final boolean checksum;
+    private final FileChannel channel;                  // the channel of the file being written
+    private final OutputStream fileStream;              // the bytes going to the file, before the checksum
+    private final CheckedOutputStream checkedStream;
+    private boolean committed;
+    private boolean closed;
+
+    // EFFECTS: opens the file to write a save of destination to; throws FileNotFoundException if it cannot be
+    // opened for writing
+    SaveOutputStream(String destination, boolean atomic, boolean checksum) throws FileNotFoundException {
+        this.destination = destination;
+        this.atomic = atomic;
+        this.checksum = checksum;
+        FileOutputStream out = new FileOutputStream(atomic ? destination + TEMP_SUFFIX : destination);
+        channel = out.getChannel();
+        fileStream = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        checkedStream = new CheckedOutputStream(fileStream, new CRC32());
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        checkedStream.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        checkedStream.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        checkedStream.flush();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the checksum trailer if it is enabled and closes the file; in atomic mode also forces the file
+    // to disk and moves it over the destination; throws IOException if anything could not be written, in which
+    // case an atomic save leaves the destination untouched
+    void commit() throws IOException {
+        try {
+            checkedStream.flush();
+            if (checksum) {
+                fileStream.write(ChecksumInputStream.trailer(checkedStream.getChecksum().getValue()));
+            }
+            fileStream.flush();
+            if (atomic) {
+                channel.force(true);
+            }
+            committed = true;
+        } finally {
+            close();
+        }
+        if (atomic) {
+            replaceDestination(Paths.get(destination + TEMP_SUFFIX), Paths.get(destination));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the file; an atomic save that was not committed is thrown away
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            fileStream.close();
+        } finally {
+            if (atomic && !committed) {
+                Files.deleteIfExists(Paths.get(destination + TEMP_SUFFIX));
+            }
+        }
+    }
+
+    // EFFECTS: moves the temporary file over the target, atomically if the file system supports it,
+    // and makes the rename durable
+    private static void replaceDestination(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Path directory = target.toAbsolutePath().getParent();
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // some platforms cannot open directories, the rename is still done
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Represents a directory an application list is saved to with one file, or shard, per application
+// Each shard holds the JSON of one application and is named by a number the store gives the application; the
+// manifest lists the shards in the order of the list. A save only rewrites the shards of applications that are dirty
+// (see Application.isDirty) and the manifest only when applications were added, removed or moved, so its cost grows
+// with the edit rather than with the list. Shards and the manifest are replaced atomically and carry a checksum
+// trailer, and new shards are written before the manifest that lists them, so a crash in the middle of a save leaves
+// every application either as it was last saved or as it is now. Shards that the manifest no longer lists are
+// deleted once a new manifest is in place. The manifest also records the last journal record the save includes, like
+// the other full saves do (see StorageFormat.SHARDED). A save can be captured on the thread that owns the list and
+// written out on another, with the applications to write copied at capture.
+public class ShardedStore {
+    public static final String MANIFEST = "manifest.json";
+    private static final String SHARD_SUFFIX = ".json";
+    private static final String SHARDS_KEY = "shards";
+    private final Path directory;
+    private final DocumentValidator documentValidator;
+    private Map<Application, Long> shards;  // the shard number of each application loaded or saved, by identity
+    private List<Application> listed;       // the applications in the manifest, in order
+    private long nextShard;                 // the number the next new application gets
+    private long journalSequence;           // the last journal record included in the save, 0 for none
+    private long listedSequence;            // the journal sequence recorded in the manifest
+    private Set<Application> unsaved;       // the applications copied to be saved whose shard is not written yet
+
+    // EFFECTS: constructs a store that saves the application list to the given directory
+    public ShardedStore(String directory) {
+        this.directory = Paths.get(directory);
+        documentValidator = new DocumentValidator();
+        shards = new IdentityHashMap<Application, Long>();
+        listed = new ArrayList<Application>();
+        unsaved = Collections.newSetFromMap(new IdentityHashMap<Application, Boolean>());
+    }
+
+    public String getDirectory() {
+        return directory.toString();
+    }
+
+    // EFFECTS: returns the validator that checks the documents of loaded lists in the background
+    public DocumentValidator getDocumentValidator() {
+        return documentValidator;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records in the manifest that the save includes every journal record up to journalSequence; the
+    // manifest is written again on the next save if this changes it
+    public synchronized void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    // EFFECTS: returns the last journal record included in the list loaded or saved last, or 0 if there is none
+    public synchronized long getJournalSequence() {
+        return journalSequence;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the manifest and every shard it lists and returns the list; its applications start out clean
+    // and their documents are checked in the background. Throws IOException if a file cannot be read
+    public ApplicationList load() throws IOException {
+        ApplicationList appList = read();
+        documentValidator.validate(appList);
+        return appList;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the manifest and every shard it lists and returns the list, with document paths recorded
+    // without being checked; its applications start out clean. Throws IOException if a file cannot be read
+    synchronized ApplicationList read() throws IOException {
+        JSONObject manifest = readJson(directory.resolve(MANIFEST));
+        JSONArray numbers = manifest.getJSONArray(SHARDS_KEY);
+        ApplicationList appList = new ApplicationList();
+        Map<Application, Long> loaded = new IdentityHashMap<Application, Long>();
+        long next = 0;
+        for (int i = 0; i < numbers.length(); i++) {
+            long number = numbers.getLong(i);
+            Application app = JsonReader.parseApplication(readJson(shardPath(number)), true);
+            appList.addApplication(app);
+            app.markClean();
+            loaded.put(app, number);
+            next = Math.max(next, number + 1);
+        }
+        shards = loaded;
+        unsaved.clear();
+        listed = new ArrayList<Application>(appList.getApplicationList());
+        nextShard = next;
+        listedSequence = manifest.optLong(JsonWriter.JOURNAL_SEQUENCE_KEY);
+        journalSequence = listedSequence;
+        return appList;
+    }
+
+    // MODIFIES: this, appList
+    // EFFECTS: writes the shards of the applications in appList that are new to this store or dirty and marks them
+    // clean, then writes the manifest if the applications, their order or the journal sequence changed since the
+    // last load or save. Throws IOException if a file could not be written; applications whose shard was not
+    // written are written again by the next save
+    public void save(ApplicationList appList) throws IOException {
+        save(capture(appList));
+    }
+
+    // MODIFIES: this, appList
+    // EFFECTS: returns the applications of appList in order with a copy of each one that is new to this store, dirty
+    // or not written by the last save, and marks them clean; nothing is written, so this is cheap enough to run on
+    // the thread that owns the list while the snapshot is saved on another one
+    public synchronized Snapshot capture(ApplicationList appList) {
+        List<Application> applications = appList.getApplicationList();
+        Map<Application, Application> copies = new IdentityHashMap<Application, Application>();
+        for (Application app : applications) {
+            if (app.isDirty() || !shards.containsKey(app) || unsaved.contains(app)) {
+                copies.put(app, app.copy());
+                unsaved.add(app);
+                app.markClean();
+            }
+        }
+        return new Snapshot(new ArrayList<Application>(applications), copies);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the shards of the applications copied into snapshot, then writes the manifest if the
+    // applications, their order or the journal sequence changed since the last load or save. Throws IOException
+    // if a file could not be written; applications whose shard was not written are written again by the next save
+    public synchronized void save(Snapshot snapshot) throws IOException {
+        Files.createDirectories(directory);
+        if (shards.isEmpty()) {
+            nextShard = Math.max(nextShard, firstFreeShard());
+        }
+        for (Application app : snapshot.applications) {
+            Application copy = snapshot.copies.get(app);
+            if (copy == null) {
+                continue;
+            }
+            Long number = shards.get(app);
+            if (number == null) {
+                number = nextShard++;
+                shards.put(app, number);
+            }
+            writeShard(number, copy);
+            unsaved.remove(app);
+        }
+        if (!snapshot.applications.equals(listed) || journalSequence != listedSequence) {
+            writeManifest(snapshot.applications);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: deletes the manifest and then every shard in the directory, if there are any, and forgets the shards;
+    // throws IOException if a file could not be deleted
+    public synchronized void delete() throws IOException {
+        shards = new IdentityHashMap<Application, Long>();
+        listed = new ArrayList<Application>();
+        unsaved.clear();
+        listedSequence = 0;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Files.deleteIfExists(directory.resolve(MANIFEST));
+        deleteShardsExcept(new HashSet<String>());
+    }
+
+    // EFFECTS: returns a shard number above every shard in the directory, so new shards never overwrite one that
+    // a manifest already on disk may list
+    private long firstFreeShard() throws IOException {
+        long next = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SHARD_SUFFIX)) {
+            for (Path path : stream) {
+                String file = path.getFileName().toString();
+                if (isShard(file)) {
+                    next = Math.max(next, Long.parseLong(file.substring(0, file.length() - SHARD_SUFFIX.length())) + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a manifest that lists the shards of the applications in order, then forgets and deletes
+    // every other shard in the directory
+    private void writeManifest(List<Application> applications) throws IOException {
+        Map<Application, Long> kept = new IdentityHashMap<Application, Long>();
+        Set<String> files = new HashSet<String>();
+        JSONArray numbers = new JSONArray();
+        for (Application app : applications) {
+            long number = shards.get(app);
+            kept.put(app, number);
+            files.add(number + SHARD_SUFFIX);
+            numbers.put(number);
+        }
+        writeJson(directory.resolve(MANIFEST), new JSONObject().put(SHARDS_KEY, numbers)
+                .put(JsonWriter.JOURNAL_SEQUENCE_KEY, journalSequence));
+        shards = kept;
+        unsaved.retainAll(kept.keySet());
+        listed = new ArrayList<Application>(applications);
+        listedSequence = journalSequence;
+        deleteShardsExcept(files);
+    }
+
+    // EFFECTS: deletes every shard in the directory whose file is not one of the given files
+    private void deleteShardsExcept(Set<String> files) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SHARD_SUFFIX)) {
+            for (Path path : stream) {
+                String file = path.getFileName().toString();
+                if (isShard(file) && !files.contains(file)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    // EFFECTS: returns true if file is named like a shard
+    private static boolean isShard(String file) {
+        String number = file.substring(0, file.length() - SHARD_SUFFIX.length());
+        return !number.isEmpty() && number.chars().allMatch(Character::isDigit);
+    }
+
+    // EFFECTS: returns the path of the shard with the given number
+    private Path shardPath(long number) {
+        return directory.resolve(number + SHARD_SUFFIX);
+    }
+
+    // EFFECTS: writes the application to the shard with the given number
+    private void writeShard(long number, Application app) throws IOException {
+        writeJson(shardPath(number), app.toJson());
+    }
+
+    // EFFECTS: replaces the file at path with the JSON, atomically and with a checksum trailer
+    private static void writeJson(Path path, JSONObject json) throws IOException {
+        SaveOutputStream output = new SaveOutputStream(path.toString(), true, true);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        try {
+            json.write(writer);
+            writer.flush();
+            output.commit();
+        } finally {
+            writer.close();
+        }
+    }
+
+    // EFFECTS: reads the JSON object in the file at path, verifying its checksum trailer if it has one
+    private static JSONObject readJson(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try (InputStream in = new ChecksumInputStream(Channels.newInputStream(channel))) {
+            return new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    // Represents the applications of a list as they were captured, with copies of the ones a save has to write
+    public static final class Snapshot {
+        private final List<Application> applications;           // the applications of the list, in order
+        private final Map<Application, Application> copies;     // the copy to write of each one, by identity
+
+        // EFFECTS: constructs a snapshot of the applications with the given copies to write
+        private Snapshot(List<Application> applications, Map<Application, Application> copies) {
+            this.applications = applications;
+            this.copies = copies;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package persistence;
+
+import model.ApplicationList;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+// The formats an application list can be saved in in full
+// JSON is the readable format written by JsonWriter; BINARY is the compact format written by BinaryWriter, which
+// takes a fraction of the space and time. Files of either format are told apart by their first bytes. SHARDED saves
+// the list to a directory next to the file instead, with one file per application (see ShardedStore); it is used
+// when there is no file.
+public enum StorageFormat {
+    JSON,
+    BINARY,
+    SHARDED;
+
+    private static final String SHARDS_SUFFIX = ".shards";
+
+    // EFFECTS: returns the directory a SHARDED save of the list saved to source goes to
+    public static String shardDirectory(String source) {
+        return source + SHARDS_SUFFIX;
+    }
+
+    // EFFECTS: returns SHARDED if there is no file at source but there is a sharded save, otherwise BINARY if the
+    // file starts with the binary magic number and JSON if it does not; throws IOException if the file cannot be read
+    public static StorageFormat detect(String source) throws IOException {
+        if (!Files.exists(Paths.get(source))
+                && Files.exists(Paths.get(shardDirectory(source), ShardedStore.MANIFEST))) {
+            return SHARDED;
+        }
+        byte[] start = new byte[BinaryWriter.MAGIC.length];
+        int read = 0;
+        try (InputStream in = Files.newInputStream(Paths.get(source))) {
+            while (read < start.length) {
+                int count = in.read(start, read, start.length - read);
+                if (count < 0) {
+                    break;
+                }
+                read += count;
+            }
+        }
+        return Arrays.equals(start, BinaryWriter.MAGIC) ? BINARY : JSON;
+    }
+
+    // EFFECTS: saves appList to destination in this format, atomically and with a checksum, recording that it
+    // includes every journal record up to journalSequence; throws IOException if it could not be saved
+    void save(String destination, ApplicationList appList, long journalSequence) throws IOException {
+        if (this == SHARDED) {
+            saveShards(destination, appList, journalSequence);
+        } else if (this == BINARY) {
+            saveBinary(destination, appList, journalSequence);
+        } else {
+            saveJson(destination, appList, journalSequence);
+        }
+    }
+
+    // EFFECTS: saves appList to destination in binary, closing the writer without committing if it fails
+    private static void saveBinary(String destination, ApplicationList appList, long journalSequence)
+            throws IOException {
+        BinaryWriter writer = new BinaryWriter(destination);
+        writer.setAtomic(true);
+        writer.setChecksum(true);
+        writer.setJournalSequence(journalSequence);
+        writer.open();
+        try {
+            writer.write(appList);
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    // EFFECTS: saves appList to destination as JSON, closing the writer without committing if it fails
+    private static void saveJson(String destination, ApplicationList appList, long journalSequence)
+            throws IOException {
+        JsonWriter writer = new JsonWriter(destination);
+        writer.setAtomic(true);
+        writer.setChecksum(true);
+        writer.setJournalSequence(journalSequence);
+        writer.open();
+        try {
+            writer.write(appList);
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            writer.abort();
+            throw e;
+        }
+    }
+
+    // EFFECTS: saves every application of appList to its own shard in the shard directory of destination, then
+    // deletes the file at destination so the shards are loaded from now on
+    private static void saveShards(String destination, ApplicationList appList, long journalSequence)
+            throws IOException {
+        ShardedStore store = new ShardedStore(shardDirectory(destination));
+        store.setJournalSequence(journalSequence);
+        store.save(appList);
+        Files.deleteIfExists(Paths.get(destination));
+    }
+}
@@ -33,6 +33,7 @@ package ui;
 
 import model.Application;
 import model.ApplicationList;
+import model.Requirement;
 
 import javax.swing.*;
 import javax.swing.event.DocumentEvent;
@@ -41,6 +42,8 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.awt.event.*;
+import java.util.HashSet;
+import java.util.Set;
 
 // Code sources: - https://docs.oracle.com/javase/tutorial/uiswing/components/list.html#mutable - how to work with lists + ListDemoProject
 //               - https://stackoverflow.com/a/43533541 - adding elements to list model
@@ -49,8 +52,8 @@ import java.awt.event.*;
 // represents the list of all applications (on the right)
 public class ApplicationListUI extends JPanel
                       implements ListSelectionListener {
-    private JList list;
-    private DefaultListModel listModel;
+    private JList<Application> list;
+    private DefaultListModel<Application> listModel;
     private ApplicationList applicationList;
     private RequirementsUI requirementsList;
 
@@ -69,7 +72,7 @@ public class ApplicationListUI extends JPanel
         Application sampleApp = new Application("Sample Application");
         applicationList.addApplication(sampleApp);
 
-        listModel = new DefaultListModel();
+        listModel = new DefaultListModel<Application>();
         listModel.addElement(applicationList.getApplicationList().get(0));
 
         JScrollPane listScrollPane = getJScrollPane();
@@ -168,7 +171,7 @@ public class ApplicationListUI extends JPanel
     // MODIFIES: this
     // EFFECTS: initialized the list and puts it on a new scroll pane
     private JScrollPane getJScrollPane() {
-        list = new JList(listModel);
+        list = new JList<Application>(listModel);
         list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         list.setSelectedIndex(0);
         list.addListSelectionListener(this);
@@ -179,23 +182,20 @@ public class ApplicationListUI extends JPanel
     }
 
     public Application getSelectedApplication() {
-        return (Application) list.getSelectedValue();
+        return list.getSelectedValue();
     }
 
     public RequirementsUI getRequirementsList() {
         return requirementsList;
     }
 
-    public JList getJList() {
+    public JList<Application> getJList() {
         return list;
     }
 
+    // EFFECTS: returns the list with all the applications, including the ones hidden by the current search
     public ApplicationList getApplicationList() {
-        ApplicationList appList = new ApplicationList();
-        for (int i = 0; i < list.getModel().getSize(); i++) {
-            appList.addApplication((Application) list.getModel().getElementAt(i));
-        }
-        return appList;
+        return applicationList;
     }
 
     // represents a listener for the remove button
@@ -206,7 +206,7 @@ public class ApplicationListUI extends JPanel
         public void actionPerformed(ActionEvent e) {
             int index = list.getSelectedIndex();
             Application appToRemove = getSelectedApplication();
-            listModel = (DefaultListModel) list.getModel();
+            listModel = (DefaultListModel<Application>) list.getModel();
             listModel.remove(index);
             applicationList.removeApplication(appToRemove);
 
@@ -257,11 +257,12 @@ public class ApplicationListUI extends JPanel
             }
 
             Application newApp = new Application(applicationName.getText());
-            listModel = (DefaultListModel) list.getModel();
+            int position = positionOf(getSelectedApplication());
+            listModel = (DefaultListModel<Application>) list.getModel();
             listModel.insertElementAt(newApp, index);
             //If we just wanted to add to the end, we'd do this:
             //listModel.addElement(employeeName.getText());
-            applicationList.addApplication(newApp);
+            applicationList.addApplication(newApp, position);
 
             //Reset the text field.
             applicationName.requestFocusInWindow();
@@ -272,9 +273,15 @@ public class ApplicationListUI extends JPanel
             list.ensureIndexIsVisible(index);
         }
 
-        // EFFECTS: tests for string equality
+        // EFFECTS: returns the position in the application list right after selected, or the first position if no
+        // application is selected, so the list keeps the order shown when nothing is hidden or sorted
+        private int positionOf(Application selected) {
+            return selected == null ? 0 : applicationList.getApplicationList().indexOf(selected) + 1;
+        }
+
+        // EFFECTS: returns true if an application with the given name is already in the application list
         protected boolean alreadyInList(String name) {
-            return ((DefaultListModel) list.getModel()).contains(name);
+            return applicationList.searchByName(name) != null;
         }
 
         //Required by DocumentListener.
@@ -344,7 +351,7 @@ public class ApplicationListUI extends JPanel
             //        return;
                 }
 
-                listModel = (DefaultListModel) list.getModel();
+                listModel = (DefaultListModel<Application>) list.getModel();
                 filterApplicationList(name);
              //   button.setText("Go back");
                 button.setActionCommand("Return");
@@ -381,11 +388,17 @@ public class ApplicationListUI extends JPanel
         }
 
         // MODIFIES: this
-        // EFFECTS: filters applications by their deadlines and sets the new list model
+        // EFFECTS: filters applications by their names and categories and sets the new list model
         private void filterApplicationList(String name) {
-            DefaultListModel filteredList = new DefaultListModel();
+            Set<String> matchingCategories = new HashSet<>();
+            for (String category : applicationList.getCategories()) {
+                if (category.contains(name)) {
+                    matchingCategories.add(category);
+                }
+            }
+            DefaultListModel<Application> filteredList = new DefaultListModel<Application>();
             for (Application app : applicationList.getApplicationList()) {
-                if (app.getName().contains(name) || app.getCategory().contains(name)) {
+                if (matchingCategories.contains(app.getCategory()) || app.getName().contains(name)) {
                     filteredList.addElement(app);
                 }
             }
@@ -444,10 +457,11 @@ public class ApplicationListUI extends JPanel
         // EFFECTS: sorts applications by deadlines or returns original order
         public void actionPerformed(ActionEvent e) {
             if (e.getActionCommand().equals("deadlines")) {
-                if (!listModelsEqual((DefaultListModel) list.getModel(), sortByDeadlines())) {
-                    listModel = (DefaultListModel) list.getModel();
+                DefaultListModel<Application> sortedModel = sortByDeadlines();
+                if (!listModelsEqual((DefaultListModel<Application>) list.getModel(), sortedModel)) {
+                    listModel = (DefaultListModel<Application>) list.getModel();
                 }
-                list.setModel(sortByDeadlines());
+                list.setModel(sortedModel);
             } else {
                 list.setModel(listModel);
             }
@@ -469,7 +483,7 @@ public class ApplicationListUI extends JPanel
         }
 
         // EFFECTS: returns true if models are completely equal
-        private boolean listModelsEqual(DefaultListModel model1, DefaultListModel model2) {
+        private boolean listModelsEqual(DefaultListModel<Application> model1, DefaultListModel<Application> model2) {
             for (int i = 0; i < model1.getSize(); i++) {
                 if (model1.get(i) != model2.get(i)) {
                     return false;
@@ -479,8 +493,8 @@ public class ApplicationListUI extends JPanel
         }
 
         // EFFECTS: orders applications by their deadlines and returns a new list
-        private DefaultListModel sortByDeadlines() {
-            DefaultListModel sortedModel = new DefaultListModel();
+        private DefaultListModel<Application> sortByDeadlines() {
+            DefaultListModel<Application> sortedModel = new DefaultListModel<Application>();
             for (Application app : applicationList.sortByDeadlines()) {
                 sortedModel.addElement(app);
             }
@@ -506,10 +520,8 @@ public class ApplicationListUI extends JPanel
         DefaultListModel appropriateReqModel = new DefaultListModel<>();
         if (getSelectedApplication() != null) {
             requirementsList.changeSelectedApplication(getSelectedApplication());
-            if (!getSelectedApplication().getRequiredDocuments().isEmpty()) {
-                for (int i = 0; i < getSelectedApplication().getRequiredDocuments().size(); i++) {
-                    appropriateReqModel.addElement(getSelectedApplication().getRequiredDocuments().get(i));
-                }
+            for (Requirement requirement : getSelectedApplication().getRequiredDocuments()) {
+                appropriateReqModel.addElement(requirement);
             }
             if (getSelectedApplication().getDeadline() != null) {
                 requirementsList.changeSpinnerDate(getSelectedApplication().getDeadline());
@@ -5,23 +5,20 @@ import exceptions.ApplicationAlreadyExistsException;
 import model.Application;
 import model.ApplicationList;
 import model.Requirement;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.ApplicationStore;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.text.ParseException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 // Applications manager console program
 public class ApplicationManager {
     private static final String JSON_STORE = "./data/applicationlist.json";
+    private static final String JOURNAL_STORE = "./data/applicationlist.journal";
     private ApplicationList appList;
     private Scanner input;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private ApplicationStore store;
 
     // EFFECTS: runs the application
     public ApplicationManager() {
@@ -48,6 +45,7 @@ public class ApplicationManager {
             }
         }
 
+        closeStore();
         System.out.println("\nGoodbye!");
     }
 
@@ -90,8 +88,7 @@ public class ApplicationManager {
         appList = new ApplicationList();
         input = new Scanner(System.in);
         input.useDelimiter("\n");
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        store = new ApplicationStore(JSON_STORE, JOURNAL_STORE);
     }
 
     // EFFECTS: displays main menu of options to user
@@ -132,12 +129,10 @@ public class ApplicationManager {
     private void removeApplication() {
         System.out.print("Enter the name of the application to be removed: ");
         String name = input.next();
-        for (Application app : appList.getApplicationList()) {
-            if (name.equals(app.getName())) {
-                appList.removeApplication(app);
-                System.out.println("Application removed successfully");
-                break;
-            }
+        Application app = appList.searchByName(name);
+        if (app != null) {
+            appList.removeApplication(app);
+            System.out.println("Application removed successfully");
         }
         printAllApplications();
     }
@@ -167,14 +162,11 @@ public class ApplicationManager {
         System.out.print("Enter the name of the requirement to be removed: ");
         String name = input.next();
 
-        for (Requirement req : selected.getRequiredDocuments()) {
-            if (name.equals(req.getName())) {
-                selected.removeRequirement(req);
-                System.out.println("Requirement removed successfully");
-                break;
-            }
+        if (selected.removeRequirement(name) != null) {
+            System.out.println("Requirement removed successfully");
+        } else {
+            System.out.println("No such requirement exists for the chosen application");
         }
-        System.out.println("No such requirement exists for the chosen application");
         printAllRequirements(selected);
     }
 
@@ -227,7 +219,7 @@ public class ApplicationManager {
         System.out.print("Enter the deadline in the format mm-dd-yyyy h:m aa where h-hours, m-minutes, aa-AM or PM: ");
         String deadline = input.next();
         try {
-            selected.setDeadline(deadline);
+            selected.editDeadline(deadline);
         } catch (ParseException e) {
             System.out.println("Wrong format");
             return;
@@ -293,31 +285,17 @@ public class ApplicationManager {
             System.out.println("No requirements have been added yet");
             return null;
         } else {
-            List<String> requirementNames = new ArrayList<String>();
-            app.getRequiredDocuments().forEach(req -> {
-                requirementNames.add(req.getName());
-            });
-
             String selection = "";  // force entry into loop
-            while (!(requirementNames.contains(selection))) {
+            while (app.getRequirement(selection) == null) {
                 System.out.println("Type in the name of one of the application requirements in the list");
                 printAllRequirements(app);
                 selection = input.next();
             }
 
-            return getRequirementByName(app, selection);
+            return app.getRequirement(selection);
         }
     }
 
-    private Requirement getRequirementByName(Application app, String name) {
-        for (Requirement req:app.getRequiredDocuments()) {
-            if (req.getName().equals(name)) {
-                return req;
-            }
-        }
-        return null;
-    }
-
     // EFFECTS: prints all requirements for an application to the screen
     private void printAllRequirements(Application selected) {
         for (Requirement req : selected.getRequiredDocuments()) {
@@ -335,11 +313,9 @@ public class ApplicationManager {
     // EFFECTS: saves the application list to file
     private void saveApplicationList() {
         try {
-            jsonWriter.open();
-            jsonWriter.write(appList);
-            jsonWriter.close();
+            store.save(appList);
             System.out.println("Saved current application list" + " to " + JSON_STORE);
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             System.out.println("Unable to write to file: " + JSON_STORE);
         }
     }
@@ -348,10 +324,19 @@ public class ApplicationManager {
     // EFFECTS: loads application list from file
     private void loadApplicationList() {
         try {
-            appList = jsonReader.read();
+            appList = store.load();
             System.out.println("Loaded the application list" + " from " + JSON_STORE);
         } catch (IOException e) {
             System.out.println("Unable to read from file: " + JSON_STORE);
         }
     }
-}
\ No newline at end of file
+
+    // EFFECTS: drops the changes that were not saved from the journal
+    private void closeStore() {
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
+        }
+    }
+}
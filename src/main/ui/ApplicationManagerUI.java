@@ -35,15 +35,21 @@ import model.Application;
 import model.ApplicationList;
 import model.Event;
 import model.EventLog;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.ApplicationStore;
+import persistence.AsyncEventSink;
+import persistence.AutoSaver;
 
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import javax.swing.*;
 
 // Code sources: - https://docs.oracle.com/javase/tutorial/uiswing/components/menu.html - menus + MenuDemo app
@@ -58,8 +64,11 @@ public class ApplicationManagerUI extends JPanel {
     JComponent requirementsPane;
     MenuUI menuBar;
     private static final String JSON_STORE = "./data/applicationlist.json";
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
+    private static final String JOURNAL_STORE = "./data/applicationlist.journal";
+    private static final String EVENT_LOG_STORE = "./data/eventlog.log";
+    private ApplicationStore store;
+    private AutoSaver autoSaver;
+    private AsyncEventSink eventSink;
 
     public ApplicationManagerUI() {
 
@@ -84,8 +93,15 @@ public class ApplicationManagerUI extends JPanel {
 
         menuBar = new MenuUI();
 
-        jsonWriter = new JsonWriter(JSON_STORE);
-        jsonReader = new JsonReader(JSON_STORE);
+        store = new ApplicationStore(JSON_STORE, JOURNAL_STORE);
+        store.getDocumentValidator().setListener(() -> SwingUtilities.invokeLater(splitPane::repaint));
+        autoSaver = new AutoSaver(store, SwingUtilities::invokeLater);
+        try {
+            eventSink = new AsyncEventSink(EVENT_LOG_STORE);
+            EventLog.getInstance().addObserver(eventSink);
+        } catch (IOException fe) {
+            System.out.println("Unable to write to file: " + EVENT_LOG_STORE);
+        }
     }
 
     public JSplitPane getSplitPane() {
@@ -140,34 +156,258 @@ public class ApplicationManagerUI extends JPanel {
     }
 
     // MODIFIES: this
-    // EFFECTS: loads application from the json file
+    // EFFECTS: starts loading the applications from the json file in the background, showing them in the list as
+    // they are read, and autosaves the loaded list from now on; the current list is not autosaved while loading
     private void loadApplications() {
+        autoSaver.pause();
+        new LoadWorker((ApplicationListUI) applicationListPane).runWithProgress("Loading from " + JSON_STORE, true);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: captures the state of the application and starts writing it to the json file in the background, and
+    // autosaves it from now on
+    private void saveApplications() {
+        autoSaver.watch(((ApplicationListUI) applicationListPane).getApplicationList());
         try {
-            ApplicationList appList = jsonReader.read();
-            ((ApplicationListUI) applicationListPane).setApplicationList(appList);
-            DefaultListModel loadedApplicationList = new DefaultListModel<>();
-            if (!appList.getApplicationList().isEmpty()) {
-                for (int i = 0; i < appList.getApplicationList().size(); i++) {
-                    loadedApplicationList.addElement(appList.getApplicationList().get(i));
+            new SaveWorker(autoSaver.saveInBackground()).runWithProgress("Saving to " + JSON_STORE, false);
+        } catch (InterruptedIOException e) {
+            JOptionPane.showMessageDialog(splitPane, "Unable to write to file: " + JSON_STORE);
+        }
+    }
+
+    // Represents a task that runs on a background thread while a modal dialog shows its progress
+    // The dialog keeps the list from being changed while the task uses it and is closed before finished is called.
+    private abstract class ProgressWorker<T, V> extends SwingWorker<T, V> {
+        private JDialog dialog;
+
+        // EFFECTS: runs the task and shows its progress until it is done; if cancellable, the dialog has a button
+        // that cancels the task
+        void runWithProgress(String title, boolean cancellable) {
+            dialog = new JDialog(SwingUtilities.getWindowAncestor(splitPane), title,
+                    Dialog.ModalityType.APPLICATION_MODAL);
+            dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+            JPanel panel = new JPanel(new BorderLayout(10, 10));
+            panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+            panel.add(createProgressBar(title, cancellable), BorderLayout.CENTER);
+            if (cancellable) {
+                JButton cancelButton = new JButton("Cancel");
+                cancelButton.addActionListener(e -> cancel(true));
+                panel.add(cancelButton, BorderLayout.EAST);
+            }
+            dialog.getContentPane().add(panel);
+            dialog.setPreferredSize(new Dimension(450, 90));
+            dialog.pack();
+            dialog.setLocationRelativeTo(splitPane);
+            execute();
+            dialog.setVisible(true);
+        }
+
+        // EFFECTS: returns a progress bar that starts out showing title and follows the progress and status of the
+        // task; it is indeterminate unless the task is cancellable
+        private JProgressBar createProgressBar(String title, boolean cancellable) {
+            JProgressBar progressBar = new JProgressBar(0, 100);
+            progressBar.setStringPainted(true);
+            progressBar.setIndeterminate(!cancellable);
+            progressBar.setString(title);
+            addPropertyChangeListener(e -> {
+                if ("progress".equals(e.getPropertyName())) {
+                    progressBar.setValue((Integer) e.getNewValue());
+                } else if ("status".equals(e.getPropertyName())) {
+                    progressBar.setString((String) e.getNewValue());
                 }
+            });
+            return progressBar;
+        }
+
+        // EFFECTS: shows text in the progress bar; must be called on the event dispatch thread
+        void showStatus(String text) {
+            firePropertyChange("status", null, text);
+        }
+
+        // MODIFIES: this
+        // EFFECTS: closes the dialog and reacts to the task being done
+        @Override
+        protected final void done() {
+            dialog.dispose();
+            finished();
+        }
+
+        // EFFECTS: reacts to the task being done, cancelled or failed, on the event dispatch thread
+        protected abstract void finished();
+    }
+
+    // Represents a load of the application list on a background thread
+    // Applications are published to a new list model a chunk at a time as they are read, and the progress bar shows
+    // how much of the file has been read. The store keeps the previous list until the load is committed once it is
+    // done, so cancelling interrupts the load and puts the previous list back as it was.
+    private class LoadWorker extends ProgressWorker<ApplicationStore.PendingLoad, Application> {
+        private final ApplicationListUI listPane;
+        private final ListModel<Application> previousModel; // shown again if the load does not finish
+        private final DefaultListModel<Application> loadingModel;
+        private volatile long bytesRead;
+        private volatile long totalBytes;
+        private ApplicationStore.PendingLoad loaded;        // the list read, until the load is abandoned
+        private boolean abandoned;                          // true once the load was cancelled or failed
+
+        // EFFECTS: constructs a load that shows the applications in listPane
+        LoadWorker(ApplicationListUI listPane) {
+            this.listPane = listPane;
+            previousModel = listPane.getJList().getModel();
+            loadingModel = new DefaultListModel<Application>();
+            listPane.getJList().setModel(loadingModel);
+        }
+
+        // EFFECTS: reads the list from the store, publishing the applications as they are read
+        @Override
+        protected ApplicationStore.PendingLoad doInBackground() throws IOException {
+            store.setLoadListener(this::applicationsLoaded);
+            try {
+                return keep(store.read());
+            } finally {
+                store.setLoadListener(null);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: on the loading thread, keeps the list read until it is committed, or drops it if the load was
+        // abandoned while it was being read; returns load
+        private synchronized ApplicationStore.PendingLoad keep(ApplicationStore.PendingLoad load) {
+            if (abandoned) {
+                load.abandon();
+            } else {
+                loaded = load;
+            }
+            return load;
+        }
+
+        // EFFECTS: on the loading thread, publishes the applications and how much of the file has been read
+        private void applicationsLoaded(List<Application> applications, long bytesRead, long totalBytes) {
+            this.bytesRead = bytesRead;
+            this.totalBytes = totalBytes;
+            publish(applications.toArray(new Application[0]));
+            setProgress((int) Math.min(100, 100 * bytesRead / Math.max(totalBytes, 1)));
+        }
+
+        // MODIFIES: this
+        // EFFECTS: adds the applications to the list as it is loaded and updates the progress text
+        @Override
+        protected void process(List<Application> applications) {
+            if (isDone()) {
+                return;     // finished shows the whole list
             }
-            ((ApplicationListUI) applicationListPane).getJList().setModel(loadedApplicationList);
-            JOptionPane.showMessageDialog(splitPane, "Loaded the application list" + " from " + JSON_STORE);
+            for (Application application : applications) {
+                loadingModel.addElement(application);
+            }
+            showStatus(loadingModel.getSize() + " applications, "
+                    + (bytesRead / 1024) + " of " + (totalBytes / 1024) + " KB read");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes the loaded list replace the previous one in the store, shows it and autosaves it from now
+        // on, or puts the previous list back if the load was cancelled or failed
+        @Override
+        protected void finished() {
+            try {
+                ApplicationStore.PendingLoad load = get();
+                ApplicationList appList = load.getApplicationList();
+                listPane.setApplicationList(appList);
+                showLoaded(appList.getApplicationList());
+                autoSaver.watch(appList);
+                load.commit();
+                JOptionPane.showMessageDialog(splitPane, "Loaded the application list" + " from " + JSON_STORE);
+            } catch (CancellationException | InterruptedException e) {
+                abandon();
+                JOptionPane.showMessageDialog(splitPane, "Loading was cancelled");
+            } catch (ExecutionException e) {
+                abandon();
+                JOptionPane.showMessageDialog(splitPane, "Unable to read from file: " + JSON_STORE);
+            } catch (IOException e) {
+                JOptionPane.showMessageDialog(splitPane, "Unable to write to file: " + JOURNAL_STORE);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: makes the list shown while loading hold exactly the loaded applications, which differ from the
+        // ones read from the full save if the journal added or removed any
+        private void showLoaded(List<Application> loaded) {
+            if (!loaded.equals(Collections.list(loadingModel.elements()))) {
+                loadingModel.clear();
+                loadingModel.addAll(loaded);
+            }
+        }
+
+        // MODIFIES: this
+        // EFFECTS: puts the previous list back, drops the list read, if it was, and autosaves the previous list again
+        private void abandon() {
+            listPane.getJList().setModel(previousModel);
+            ApplicationStore.PendingLoad load;
+            synchronized (this) {
+                abandoned = true;
+                load = loaded;
+                loaded = null;
+            }
+            if (load != null) {
+                load.abandon();
+            }
+            autoSaver.resume();
+        }
+    }
+
+    // Represents a save of the application list on a background thread
+    // The list is captured on the event dispatch thread and written out on the autosave thread; the worker only waits
+    // for the save to finish, so the save always runs even if the worker does not.
+    private class SaveWorker extends ProgressWorker<Void, Void> {
+        private final Future<?> saved;      // the save handed to the autosave thread
+
+        // EFFECTS: constructs a worker that waits for saved
+        SaveWorker(Future<?> saved) {
+            this.saved = saved;
+        }
+
+        // EFFECTS: waits for the captured list to be written out and forced to disk
+        @Override
+        protected Void doInBackground() throws InterruptedException, ExecutionException {
+            saved.get();
+            return null;
+        }
+
+        // EFFECTS: tells the user whether the list was saved
+        @Override
+        protected void finished() {
+            try {
+                get();
+                JOptionPane.showMessageDialog(splitPane, "Saved current application list" + " to " + JSON_STORE);
+            } catch (InterruptedException | ExecutionException e) {
+                JOptionPane.showMessageDialog(splitPane, "Unable to write to file: " + JSON_STORE);
+            }
+        }
+    }
+
+    // EFFECTS: saves the changes still waiting to be autosaved, then drops any other changes that were not saved
+    // from the journal
+    private void closeStore() {
+        try {
+            autoSaver.close();
+        } catch (IOException fe) {
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
+        }
+        try {
+            store.close();
         } catch (IOException fe) {
-            JOptionPane.showMessageDialog(splitPane, "Unable to read from file: " + JSON_STORE);
+            System.out.println("Unable to write to file: " + JOURNAL_STORE);
         }
     }
 
-    // MODIFIES: this
-    // EFFECTS: writes the state of the application to the json file
-    private void saveApplications() {
+    // EFFECTS: writes out the events that are still queued for the event log file
+    private void closeEventLog() {
+        if (eventSink == null) {
+            return;
+        }
+        EventLog.getInstance().removeObserver(eventSink);
         try {
-            jsonWriter.open();
-            jsonWriter.write(((ApplicationListUI) applicationListPane).getApplicationList());
-            jsonWriter.close();
-            JOptionPane.showMessageDialog(splitPane, "Saved current application list" + " to " + JSON_STORE);
-        } catch (FileNotFoundException fe) {
-            JOptionPane.showMessageDialog(splitPane, "Unable to write to file: " + JSON_STORE);
+            eventSink.close();
+        } catch (IOException fe) {
+            System.out.println("Unable to write to file: " + EVENT_LOG_STORE);
         }
     }
 
@@ -180,17 +420,19 @@ public class ApplicationManagerUI extends JPanel {
         //Create and set up the window.
         JFrame frame = new JFrame("Application Manager");
         frame.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        ApplicationManagerUI applicationManagerUI = new ApplicationManagerUI();
         // EFFECTS: when the user closes the window, print event log to console and then closes the application
         frame.addWindowListener(new java.awt.event.WindowAdapter() {
             @Override
             public void windowClosing(java.awt.event.WindowEvent windowEvent) {
+                applicationManagerUI.closeStore();
                 for (Event next : EventLog.getInstance()) {
                     System.out.println(next.toString() + "\n");
                 }
+                applicationManagerUI.closeEventLog();
                 System.exit(0);
             }
         });
-        ApplicationManagerUI applicationManagerUI = new ApplicationManagerUI();
         frame.getContentPane().add(applicationManagerUI.getSplitPane());
 
         //Add a menu to the frame
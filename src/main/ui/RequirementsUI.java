@@ -118,8 +118,8 @@ public class RequirementsUI extends JPanel
         }
 
         listModel = new DefaultListModel();
-        for (int i = 0; i < selectedApplication.getRequiredDocuments().size(); i++) {
-            listModel.addElement(selectedApplication.getRequiredDocuments().get(i));
+        for (Requirement requirement : selectedApplication.getRequiredDocuments()) {
+            listModel.addElement(requirement);
         }
     }
 
@@ -204,22 +204,13 @@ public class RequirementsUI extends JPanel
     }
 
     // MODIFIES: progressBar
-    // EFFECTS: function to increase progress on the progress bar
+    // EFFECTS: shows the progress the selected application keeps track of on the progress bar, or 0 if it has no
+    // requirements to complete
     public void trackProgress() {
-        int numCompleted = 0;
-        for (int i = 0; i < list.getModel().getSize(); i++) {
-            if (((Requirement) (list.getModel().getElementAt(i))).getStatus()) {
-                numCompleted++;
-            }
-        }
-        try {
-            if (list.getModel().getSize() != 0) {
-                progressBar.setValue((numCompleted * 100) / list.getModel().getSize());
-            } else {
-                progressBar.setValue(0);
-            }
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null,"Error with the progress bar");
+        if (list.getModel().getSize() == 0) {
+            progressBar.setValue(0);
+        } else {
+            progressBar.setValue(selectedApplication.getProgress());
         }
     }
 
@@ -364,8 +355,7 @@ public class RequirementsUI extends JPanel
 
         // EFFECTS: checks whether a requirement with such name is already in the list
         protected boolean alreadyInList(String name) {
-            listModel = (DefaultListModel) list.getModel();
-            return listModel.contains(name);
+            return selectedApplication.getRequirement(name) != null;
         }
 
         //Required by DocumentListener.
@@ -498,8 +488,8 @@ public class RequirementsUI extends JPanel
         }
 
         // MODIFIED: this
-        // EFFECTS: highlights completed requirements green, adds a file name if there is one uploaded and does
-        // default list rendering
+        // EFFECTS: highlights completed requirements green, adds a file name if there is one uploaded, flags it
+        // in red if the file was found missing, and does default list rendering
         public Component getListCellRendererComponent(JList paramList, Object value,
                                                       int index, boolean isSelected, boolean cellHasFocus) {
             setText(value.toString());
@@ -516,6 +506,10 @@ public class RequirementsUI extends JPanel
             if (((Requirement) value).getUploadedDocument() != null) {
                 setText(value + " | file: " + ((Requirement) value).getUploadedDocument().getName());
             }
+            if (((Requirement) value).isDocumentMissing()) {
+                setText(getText() + " (missing)");
+                setForeground(Color.RED);
+            }
             return this;
         }
     }
@@ -556,9 +550,6 @@ public class RequirementsUI extends JPanel
             switch (e.getActionCommand()) {
                 case "Completed": case "Incomplete":
                     ((Requirement) list.getSelectedValue()).changeStatus(e.getActionCommand().equals("Completed"));
-                //    selectedApplication.getRequirement((Requirement)
-                //            list.getSelectedValue()).changeStatus(e.getActionCommand().equals("Completed"));
-                    selectedApplication.trackStatusAndProgress();
                     trackProgress();
                     break;
                 case "Upload file":
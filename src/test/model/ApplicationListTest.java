@@ -62,6 +62,16 @@ public class ApplicationListTest {
         assertTrue(l.get(2).getDescription().equals("Added application: Test Application 3"));
     }
 
+    @Test
+    void testAddApplicationAtPosition() {
+        testApplicationList.addApplication(testApplication1);
+        testApplicationList.addApplication(testApplication2, 0);
+        testApplicationList.addApplication(testApplication3, 1);
+        assertEquals(List.of(testApplication2, testApplication3, testApplication1),
+                testApplicationList.getApplicationList());
+        assertEquals(testApplication3, testApplicationList.searchByName("Test Application 3"));
+    }
+
     @Test
     void testAddApplicationAlreadyExists() {
         try {
@@ -83,6 +93,19 @@ public class ApplicationListTest {
         }
     }
 
+    @Test
+    void testAddApplicationSameNameDifferentInstance() {
+        try {
+            testApplicationList.addApplication(testApplication1);
+            testApplicationList.addApplication(new Application(new String("Test Application 1")));
+            fail();
+        } catch (AlreadyExistsException e) {
+            // To be expected
+        }
+        assertEquals(1, testApplicationList.getApplicationList().size());
+        assertEquals(testApplication1, testApplicationList.searchByName("Test Application 1"));
+    }
+
     @Test
     void testRemoveApplication() {
         testApplicationList.removeApplication(testApplication1);
@@ -151,6 +174,54 @@ public class ApplicationListTest {
         assertEquals(testApplication2, testSortedList.get(2));
     }
 
+    @Test
+    void testSortByDeadlinesAfterRemoval() throws ParseException {
+        testApplication1.setDeadline("20-04-23 11:59 PM");
+        testApplication2.setDeadline("20-04-23 11:59 PM");
+        testApplication3.setDeadline("01-01-23 10:00 AM");
+        try {
+            testApplicationList.addApplication(testApplication1);
+            testApplicationList.addApplication(testApplication2);
+            testApplicationList.addApplication(testApplication3);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        List<Application> testSortedList = testApplicationList.sortByDeadlines();
+        assertEquals(testApplication3, testSortedList.get(0));
+        assertEquals(testApplication1, testSortedList.get(1));
+        assertEquals(testApplication2, testSortedList.get(2));
+
+        testApplicationList.removeApplication(testApplication3);
+        testApplication3.setDeadline("01-01-22 10:00 AM");
+        testSortedList = testApplicationList.sortByDeadlines();
+        assertEquals(2, testSortedList.size());
+        assertEquals(testApplication1, testSortedList.get(0));
+    }
+
+    @Test
+    void testGetNextDeadlines() throws ParseException {
+        assertTrue(testApplicationList.getNextDeadlines(2).isEmpty());
+        try {
+            testApplicationList.addApplication(testApplication1);
+            testApplicationList.addApplication(testApplication2);
+            testApplicationList.addApplication(testApplication3);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        assertTrue(testApplicationList.getNextDeadlines(2).isEmpty());
+
+        testApplication3.setDeadline("01-06-23 12:23 PM");
+        testApplication2.setDeadline("20-04-23 11:59 PM");
+        List<Application> nextDeadlines = testApplicationList.getNextDeadlines(1);
+        assertEquals(1, nextDeadlines.size());
+        assertEquals(testApplication2, nextDeadlines.get(0));
+
+        nextDeadlines = testApplicationList.getNextDeadlines(5);
+        assertEquals(2, nextDeadlines.size());
+        assertEquals(testApplication2, nextDeadlines.get(0));
+        assertEquals(testApplication3, nextDeadlines.get(1));
+    }
+
     @Test
     void testFilterByCategory() {
         assertTrue(testApplicationList.filterByCategory("school").isEmpty());
@@ -170,6 +241,33 @@ public class ApplicationListTest {
         assertEquals(testFilteredList, testApplicationList.filterByCategory("school"));
         assertEquals(testApplication2, testApplicationList.filterByCategory("work").get(0));
         assertTrue(testApplicationList.filterByCategory("job").isEmpty());
+        assertEquals(2, testApplicationList.countByCategory("school"));
+        assertEquals(1, testApplicationList.countByCategory("work"));
+        assertEquals(0, testApplicationList.countByCategory("job"));
+    }
+
+    @Test
+    void testFilterByCategoryAfterChanges() {
+        testApplication1.setCategory("school");
+        try {
+            testApplicationList.addApplication(testApplication1);
+            testApplicationList.addApplication(testApplication2);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        testApplication2.setCategory("school");
+        testApplication1.setCategory("work");
+        assertEquals(1, testApplicationList.filterByCategory("school").size());
+        assertEquals(testApplication2, testApplicationList.filterByCategory("school").get(0));
+        assertEquals(testApplication1, testApplicationList.filterByCategory("work").get(0));
+
+        testApplicationList.removeApplication(testApplication2);
+        assertTrue(testApplicationList.filterByCategory("school").isEmpty());
+        assertFalse(testApplicationList.getCategories().contains("school"));
+
+        // removed applications are no longer tracked
+        testApplication2.setCategory("work");
+        assertEquals(1, testApplicationList.countByCategory("work"));
     }
 
     @Test
@@ -186,5 +284,32 @@ public class ApplicationListTest {
         assertEquals(testApplication2, testApplicationList.searchByName("Test Application 2"));
 
         assertEquals(null, testApplicationList.searchByName("Test Application 3"));
+
+        testApplicationList.removeApplication(testApplication1);
+        assertEquals(null, testApplicationList.searchByName("Test Application 1"));
+        assertEquals(testApplication2, testApplicationList.searchByName("Test Application 2"));
+    }
+
+    @Test
+    void testCopy() throws ParseException {
+        testApplication1.setCategory("Job");
+        testApplication2.setDeadline("15-07-22 11:59 AM");
+        testApplicationList.addApplication(testApplication2);
+        testApplicationList.addApplication(testApplication1);
+        EventLog.getInstance().clear();
+        ApplicationList copy = testApplicationList.copy();
+        int events = 0;
+        for (Event next : EventLog.getInstance()) {
+            events++;
+        }
+        assertEquals(1, events);
+        assertEquals(testApplicationList.toJson().toString(), copy.toJson().toString());
+        Application copied = copy.searchByName("Test Application 1");
+        assertNotSame(testApplication1, copied);
+        assertEquals(List.of(copied), copy.filterByCategory("Job"));
+        assertEquals("Test Application 2", copy.sortByDeadlines().get(0).getName());
+
+        copy.removeApplication(copied);
+        assertEquals(2, testApplicationList.getApplicationList().size());
     }
 }
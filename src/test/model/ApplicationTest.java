@@ -56,6 +56,33 @@ public class ApplicationTest {
         assertEquals("09-11-22 11:59 AM", testApplication.getStrDeadline());
     }
 
+    @Test
+    void testOnlyEditedDeadlineIsLogged() throws ParseException {
+        EventLog.getInstance().clear();
+        testApplication.setDeadline("09-11-22 11:59 AM");
+        testApplication.setDeadline(0, null);
+        assertEquals(1, descriptions().size());
+        testApplication.editDeadline("10-11-22 11:59 AM");
+        assertEquals(2, descriptions().size());
+        assertEquals("10-11-22 11:59 AM", testApplication.getStrDeadline());
+        testApplication.editDeadline("");
+        assertEquals(2, descriptions().size());
+    }
+
+    @Test
+    void testSetStringDeadlineKeepsEnteredText() {
+        try {
+            testApplication.setDeadline("11-11-2022 11:59 PM");
+        } catch (ParseException e) {
+            fail();
+        }
+        assertTrue(testApplication.hasDeadline());
+        assertEquals(testApplication.getDeadline().getTime(), testApplication.getDeadlineTime());
+        assertEquals("11-11-2022 11:59 PM", testApplication.getStrDeadline());
+        testApplication.setDeadline(testApplication.getDeadline());
+        assertEquals("11-11-22 11:59 AM", testApplication.getStrDeadline());
+    }
+
     @Test
     void testSetDateDeadline() {
         Calendar cal = Calendar.getInstance();
@@ -143,6 +170,51 @@ public class ApplicationTest {
 
     }
 
+    @Test
+    void testAddRequirementSameNameDifferentInstance() {
+        try {
+            testApplication.addRequirement(testRequirement1);
+            testApplication.addRequirement(new Requirement(new String("Test Requirement 1")));
+            fail();
+        } catch (AlreadyExistsException e) {
+            // Works as expected
+        }
+        assertEquals(1, testApplication.getRequiredDocuments().size());
+        assertEquals(testRequirement1, testApplication.getRequirement("Test Requirement 1"));
+    }
+
+    @Test
+    void testGetRequirement() {
+        assertNull(testApplication.getRequirement("Test Requirement 1"));
+        try {
+            testApplication.addRequirement(testRequirement1);
+            testApplication.addRequirement(testRequirement2);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        assertEquals(testRequirement2, testApplication.getRequirement("Test Requirement 2"));
+        assertEquals(testRequirement1, testApplication.getRequirement(testRequirement1));
+        assertNull(testApplication.getRequirement(new Requirement("Test Requirement 1")));
+        assertNull(testApplication.getRequirement(testRequirement3));
+    }
+
+    @Test
+    void testRemoveRequirementByName() {
+        try {
+            testApplication.addRequirement(testRequirement1);
+            testApplication.addRequirement(testRequirement2);
+            testApplication.addRequirement(testRequirement3);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        assertEquals(testRequirement2, testApplication.removeRequirement("Test Requirement 2"));
+        assertNull(testApplication.removeRequirement("Test Requirement 2"));
+        List<Requirement> requirements = testApplication.getRequiredDocuments();
+        assertEquals(2, requirements.size());
+        assertEquals(testRequirement1, requirements.get(0));
+        assertEquals(testRequirement3, requirements.get(1));
+    }
+
     @Test
     void testRemoveRequirement() {
         try {
@@ -192,6 +264,55 @@ public class ApplicationTest {
         assertEquals(33, testApplication.getProgress());
     }
 
+    @Test
+    void testTrackStatusAndProgressWithoutRequirements() {
+        testApplication.trackStatusAndProgress();
+        assertTrue(testApplication.getStatus());
+        assertEquals(100, testApplication.getProgress());
+
+        testApplication.addRequirement(testRequirement1);
+        assertFalse(testApplication.getStatus());
+        assertEquals(0, testApplication.getProgress());
+        testApplication.removeRequirement(testRequirement1);
+        assertTrue(testApplication.getStatus());
+        assertEquals(100, testApplication.getProgress());
+    }
+
+    @Test
+    void testTrackStatusAndProgressOnStatusChange() {
+        try {
+            testApplication.addRequirement(testRequirement1);
+            testApplication.addRequirement(testRequirement2);
+        } catch (AlreadyExistsException e) {
+            fail();
+        }
+        assertEquals(0, testApplication.getProgress());
+        testRequirement1.changeStatus(true);
+        assertFalse(testApplication.getStatus());
+        assertEquals(50, testApplication.getProgress());
+        testRequirement1.changeStatus(true);
+        assertEquals(50, testApplication.getProgress());
+        testRequirement2.changeStatus(true);
+        assertTrue(testApplication.getStatus());
+        assertEquals(100, testApplication.getProgress());
+
+        testApplication.removeRequirement(testRequirement2);
+        assertTrue(testApplication.getStatus());
+        assertEquals(100, testApplication.getProgress());
+        testRequirement1.changeStatus(false);
+        assertFalse(testApplication.getStatus());
+        assertEquals(0, testApplication.getProgress());
+
+        // removed requirements no longer affect the application
+        testRequirement2.changeStatus(false);
+        assertEquals(0, testApplication.getProgress());
+        assertNull(testRequirement2.getApplication());
+
+        testApplication.removeRequirement(testRequirement1);
+        assertTrue(testApplication.getStatus());
+        assertEquals(100, testApplication.getProgress());
+    }
+
     @Test
     void testSetStatus() {
         testApplication.setStatus(true);
@@ -208,6 +329,93 @@ public class ApplicationTest {
         assertEquals(11, testApplication.getProgress());
     }
 
+    @Test
+    void testRequirementLoader() {
+        testRequirement2.changeStatus(true);
+        List<Integer> loads = new ArrayList<Integer>();
+        testApplication.setStatus(true);
+        testApplication.setProgress(50);
+        testApplication.setRequirementLoader(() -> {
+            loads.add(loads.size());
+            return List.of(testRequirement1, testRequirement2);
+        });
+        EventLog.getInstance().clear();
+        assertFalse(testApplication.hasLoadedRequirements());
+        assertTrue(testApplication.getStatus());
+        assertEquals(50, testApplication.getProgress());
+
+        assertEquals(testRequirement2, testApplication.getRequirement("Test Requirement 2"));
+        assertTrue(testApplication.hasLoadedRequirements());
+        assertEquals(List.of(testRequirement1, testRequirement2), testApplication.getRequiredDocuments());
+        assertEquals(testApplication, testRequirement1.getApplication());
+        assertFalse(testApplication.getStatus());
+        assertEquals(50, testApplication.getProgress());
+        testRequirement1.changeStatus(true);
+        assertEquals(100, testApplication.getProgress());
+        assertEquals(1, loads.size());
+        assertEquals(2, descriptions().size());
+    }
+
+    @Test
+    void testDirty() {
+        assertTrue(testApplication.isDirty());
+        testApplication.markClean();
+        assertFalse(testApplication.isDirty());
+        testApplication.addRequirement(testRequirement1);
+        assertTrue(testApplication.isDirty());
+        testApplication.markClean();
+        testRequirement1.changeStatus(true);
+        assertTrue(testApplication.isDirty());
+        testApplication.markClean();
+        testRequirement1.recordDocument("./data/testFile");
+        assertTrue(testApplication.isDirty());
+        testApplication.markClean();
+        testApplication.removeRequirement(testRequirement2);
+        assertFalse(testApplication.isDirty());
+        testApplication.setCategory("Job");
+        assertTrue(testApplication.isDirty());
+    }
+
+    @Test
+    void testCopy() throws ParseException {
+        testApplication.setDeadline("15-07-22 11:59 AM");
+        testApplication.setCategory("Job");
+        testApplication.addRequirement(testRequirement1);
+        testRequirement1.changeStatus(true);
+        testApplication.addRequirement(testRequirement2);
+        EventLog.getInstance().clear();
+        Application copy = testApplication.copy();
+        assertEquals(1, descriptions().size());
+        assertEquals(testApplication.toJson().toString(), copy.toJson().toString());
+        assertNotSame(testRequirement1, copy.getRequirement("Test Requirement 1"));
+        assertEquals(copy, copy.getRequirement("Test Requirement 1").getApplication());
+
+        copy.getRequirement("Test Requirement 2").changeStatus(true);
+        assertEquals(100, copy.getProgress());
+        assertEquals(50, testApplication.getProgress());
+        assertFalse(testRequirement2.getStatus());
+
+        Application unloaded = new Application("Test2");
+        List<Integer> loads = new ArrayList<Integer>();
+        unloaded.setRequirementLoader(() -> {
+            loads.add(loads.size());
+            return List.of(new Requirement("Test Requirement 3"));
+        });
+        Application unloadedCopy = unloaded.copy();
+        assertFalse(unloadedCopy.hasLoadedRequirements());
+        assertEquals(0, loads.size());
+        assertEquals("Test Requirement 3", unloadedCopy.getRequiredDocuments().get(0).getName());
+        assertFalse(unloaded.hasLoadedRequirements());
+    }
+
+    private List<String> descriptions() {
+        List<String> descriptions = new ArrayList<String>();
+        for (Event next : EventLog.getInstance()) {
+            descriptions.add(next.getDescription());
+        }
+        return descriptions;
+    }
+
     private boolean testEventLog(int index, String logDescription) {
         List<Event> l = new ArrayList<Event>();
         EventLog el = EventLog.getInstance();
@@ -0,0 +1,81 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// tests for the DeadlineFormat class, checked against what SimpleDateFormat gives for the same pattern
+public class DeadlineFormatTest {
+    private static final String[] DEADLINES = {"09-11-22 11:59 AM", "15-07-22 23:59 PM", "11-11-2022 11:59 PM",
+        "1-2-23 7:05 am", "32-01-23 10:00 AM", "31-02-24 25:61 PM", "00-00-22 00:00 AM", "09-11-45 11:59 AM",
+        "09-11-46 11:59 AM", "09-11-22 11:59 AMish", "09-11-22  11:59 AM", "09-11-0022 11:59 AM",
+        "09-11-2099 11:59 AM"};
+
+    @Test
+    void testParseMatchesSimpleDateFormat() {
+        for (String deadline : DEADLINES) {
+            try {
+                assertEquals(expectedTime(deadline), DeadlineFormat.parse(deadline), deadline);
+            } catch (ParseException e) {
+                fail("Deadline " + deadline + " should have been parsed");
+            }
+        }
+    }
+
+    @Test
+    void testParseUnusualInputLikeSimpleDateFormat() throws ParseException {
+        String[] unusual = {"09-11-22   11:59 AM", "09-11-1850 11:59 AM", "09-11-3000 11:59 PM", "09-11-22 11:59 PM",
+            "09- 11-22 11:59 AM", "009-00011-22 11:59 AM"};
+        for (String deadline : unusual) {
+            assertEquals(expectedTime(deadline), DeadlineFormat.parse(deadline), deadline);
+        }
+    }
+
+    @Test
+    void testParseWrong() {
+        for (String deadline : new String[]{"cxbfbrf", "11-09-2022", "11-09-22 11:59", "11-09-22 11:59 XM", ""}) {
+            try {
+                DeadlineFormat.parse(deadline);
+                fail("Deadline " + deadline + " should not have been parsed");
+            } catch (ParseException e) {
+                // pass
+            }
+        }
+    }
+
+    @Test
+    void testFormatMatchesSimpleDateFormat() {
+        long[] times = {0, 1668211140000L, 1657929540000L, -2209021281435L, 4102444800000L};
+        for (long time : times) {
+            assertEquals(new SimpleDateFormat(DeadlineFormat.PATTERN).format(new Date(time)),
+                    DeadlineFormat.format(time));
+        }
+    }
+
+    @Test
+    void testParseFromManyThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<Long>> results = new ArrayList<Future<Long>>();
+        for (int i = 0; i < 1000; i++) {
+            String deadline = DEADLINES[i % DEADLINES.length];
+            results.add(pool.submit(() -> DeadlineFormat.parse(deadline)));
+        }
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(expectedTime(DEADLINES[i % DEADLINES.length]), results.get(i).get());
+        }
+        pool.shutdown();
+    }
+
+    private long expectedTime(String deadline) throws ParseException {
+        return new SimpleDateFormat(DeadlineFormat.PATTERN).parse(deadline).getTime();
+    }
+}
@@ -0,0 +1,136 @@
+package model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+    private EventLog log;
+
+    @BeforeEach
+    void runBefore() {
+        log = EventLog.getInstance();
+    }
+
+    @AfterEach
+    void runAfter() {
+        log.configure(EventLog.DEFAULT_CAPACITY, EventLog.OverflowPolicy.DROP_OLDEST, null);
+        log.clear();
+    }
+
+    @Test
+    void testDropOldest() {
+        log.configure(3, EventLog.OverflowPolicy.DROP_OLDEST, null);
+        assertEquals(4, log.getCapacity());
+        log.clear();
+        for (int i = 1; i <= 5; i++) {
+            log.logEvent(new Event("Event " + i));
+        }
+        assertEquals(List.of("Event 2", "Event 3", "Event 4", "Event 5"), descriptions());
+    }
+
+    @Test
+    void testSpillToDisk() {
+        List<String> spilled = new ArrayList<String>();
+        log.configure(2, EventLog.OverflowPolicy.SPILL_TO_DISK, event -> spilled.add(event.getDescription()));
+        log.clear();
+        log.logEvent(new Event("Event 1"));
+        log.logEvent(new Event("Event 2"));
+        log.logEvent(new Event("Event 3"));
+
+        assertEquals(List.of("Event 2", "Event 3"), descriptions());
+        assertEquals(List.of("Event log cleared.", "Event 1"), spilled);
+    }
+
+    @Test
+    void testClearForgetsEvents() {
+        log.logEvent(new Event("Event 1"));
+        log.clear();
+        log.logEvent(new Event("Event 2"));
+        assertEquals(List.of("Event log cleared.", "Event 2"), descriptions());
+    }
+
+    @Test
+    void testTypedEventDescription() {
+        Application app = new Application("UBC");
+        Requirement requirement = new Requirement("Transcript");
+        Event event = new Event(EventType.STATUS_CHANGED, requirement, true);
+        assertEquals("Changed status of Transcript to completed", event.getDescription());
+        assertEquals("Set category College for UBC",
+                new Event(EventType.CATEGORY_SET, app, "College").getDescription());
+        assertEquals(event.getTime(), event.getDate().getTime());
+    }
+
+    @Test
+    void testLoggedEventKeepsOnlyNames() {
+        Application app = new Application("UBC");
+        Requirement requirement = new Requirement("Transcript");
+        app.addRequirement(requirement);
+        Event event = new Event(EventType.STATUS_CHANGED, requirement, true, app);
+        assertSame(requirement, event.getArgument(0));
+        log.logEvent(event);
+        assertEquals("Transcript", event.getArgument(0));
+        assertEquals("UBC", event.getApplicationName());
+        assertEquals("Changed status of Transcript to completed", event.getDescription());
+        assertNull(new Event(EventType.DOCUMENT_OPENED, requirement, null, null).getApplicationName());
+    }
+
+    @Test
+    void testQuery() {
+        log.clear();
+        Application ubc = new Application("UBC");
+        Application sfu = new Application("SFU");
+        Requirement transcript = new Requirement("Transcript");
+        ubc.addRequirement(transcript);
+        sfu.setCategory("University");
+        transcript.changeStatus(true);
+        ubc.setCategory("College");
+        long now = System.currentTimeMillis();
+
+        assertEquals(List.of("Added requirement Transcript for UBC", "Changed status of Transcript to completed",
+                "Set category College for UBC"), descriptions(log.query(0, now, null, "UBC")));
+        assertEquals(List.of("Set category University for SFU", "Set category College for UBC"),
+                descriptions(log.query(0, now, EventType.CATEGORY_SET, null)));
+        assertEquals(List.of("Changed status of Transcript to completed"),
+                descriptions(log.query(0, now, EventType.STATUS_CHANGED, "UBC")));
+        assertTrue(descriptions(log.query(now + 1, Long.MAX_VALUE, null, null)).isEmpty());
+        assertTrue(descriptions(log.query(0, now, null, "MIT")).isEmpty());
+        assertEquals(5, descriptions(log.query(0, now, null, null)).size());
+    }
+
+    @Test
+    void testConcurrentProducers() throws InterruptedException {
+        log.clear();
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.logEvent(new Event("Event " + i));
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(4001, descriptions().size());
+    }
+
+    private List<String> descriptions() {
+        return descriptions(log);
+    }
+
+    private List<String> descriptions(Iterable<Event> events) {
+        List<String> descriptions = new ArrayList<String>();
+        for (Event next : events) {
+            descriptions.add(next.getDescription());
+        }
+        return descriptions;
+    }
+}
@@ -3,6 +3,7 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -57,6 +58,28 @@ public class RequirementTest {
         testEventLog(2, "Uploaded file testFile2 for Test");
     }
 
+    @Test
+    void testRecordDocument() {
+        Path testFile = Paths.get("./data/testFile");
+        testRequirement.uploadDocument(testFile.toString());
+        assertEquals(Requirement.DocumentState.AVAILABLE, testRequirement.getDocumentState());
+
+        File missing = new File("./data/noSuchFile");
+        testRequirement.recordDocument(missing.getPath());
+        assertEquals(missing, testRequirement.getUploadedDocument());
+        assertEquals(Requirement.DocumentState.UNCHECKED, testRequirement.getDocumentState());
+        assertFalse(testRequirement.setDocumentState(testFile.toFile(), Requirement.DocumentState.MISSING));
+        assertFalse(testRequirement.isDocumentMissing());
+        assertTrue(testRequirement.setDocumentState(missing, Requirement.DocumentState.MISSING));
+        assertTrue(testRequirement.isDocumentMissing());
+
+        testRequirement.recordDocument("");
+        assertEquals(missing, testRequirement.getUploadedDocument());
+        testRequirement.deleteUploadedDocument();
+        assertFalse(testRequirement.isDocumentMissing());
+        assertTrue(testEventLog(2, "Uploaded file noSuchFile for Test"));
+    }
+
     @Test
     void testFailedUploadDocument() {
         Path invalidFile = Paths.get("");
@@ -0,0 +1,90 @@
+package persistence;
+
+import model.Application;
+import model.Event;
+import model.EventType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncEventSinkTest {
+    private static final String LOG = "./data/testEventSink.log";
+
+    @BeforeEach
+    @AfterEach
+    void deleteLogs() throws IOException {
+        if (Files.isDirectory(Paths.get(LOG + ".1"))) {
+            Files.delete(Paths.get(LOG + ".1", "blocker"));
+        }
+        for (String file : List.of(LOG, LOG + ".1", LOG + ".2")) {
+            Files.deleteIfExists(Paths.get(file));
+        }
+    }
+
+    @Test
+    void testEventsAreWrittenInOrder() {
+        try {
+            AsyncEventSink sink = new AsyncEventSink(LOG);
+            sink.eventLogged(new Event(EventType.CATEGORY_SET, new Application("UBC"), "College"));
+            sink.eventLogged(new Event("Statement\nof purpose"));
+            sink.close();
+
+            List<String> lines = Files.readAllLines(Paths.get(LOG), StandardCharsets.UTF_8);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).endsWith(" CATEGORY_SET Set category College for UBC"));
+            assertTrue(lines.get(1).endsWith(" OTHER Statement\\nof purpose"));
+            assertEquals(0, sink.getDroppedCount());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testFilesAreRotated() {
+        try {
+            AsyncEventSink sink = new AsyncEventSink(LOG, 1024, 100, 2);
+            for (int i = 0; i < 50; i++) {
+                sink.eventLogged(new Event("Event " + i));
+            }
+            sink.close();
+
+            assertTrue(Files.exists(Paths.get(LOG + ".1")));
+            assertFalse(Files.exists(Paths.get(LOG + ".2")));
+            List<String> lines = Files.readAllLines(Paths.get(LOG), StandardCharsets.UTF_8);
+            if (lines.isEmpty()) {
+                lines = Files.readAllLines(Paths.get(LOG + ".1"), StandardCharsets.UTF_8);
+            }
+            assertTrue(lines.get(lines.size() - 1).endsWith("Event 49"));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testFailedRotationKeepsWriting() throws IOException {
+        Files.createDirectories(Paths.get(LOG + ".1"));
+        Files.createFile(Paths.get(LOG + ".1", "blocker"));
+        AsyncEventSink sink = new AsyncEventSink(LOG, 1024, 10, 2);
+        for (int i = 0; i < 20; i++) {
+            sink.eventLogged(new Event("Event " + i));
+        }
+        try {
+            sink.close();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass: the rotation failed
+        }
+
+        List<String> lines = Files.readAllLines(Paths.get(LOG), StandardCharsets.UTF_8);
+        assertEquals(20, lines.size());
+        assertTrue(lines.get(19).endsWith("Event 19"));
+    }
+}
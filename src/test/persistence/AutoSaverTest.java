@@ -0,0 +1,166 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AutoSaverTest {
+    private static final String SOURCE = "./data/testAutoSaverApplicationList.json";
+    private static final String JOURNAL = "./data/testAutoSaverApplicationList.journal";
+    private ApplicationStore store;
+    private AutoSaver autoSaver;
+    private ApplicationList appList;
+    private Application testApp;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        runAfter();
+        appList = new ApplicationList();
+        testApp = new Application("UBC");
+        testApp.addRequirement(new Requirement("Transcript"));
+        appList.addApplication(testApp);
+        store = new ApplicationStore(SOURCE, JOURNAL);
+        store.save(appList);
+        autoSaver = new AutoSaver(store, Runnable::run);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        if (autoSaver != null) {
+            autoSaver.close();
+            store.close();
+        }
+        Files.deleteIfExists(Paths.get(SOURCE));
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    @Test
+    void testSavesAfterBurstOfChanges() throws IOException, InterruptedException {
+        autoSaver.setDelay(300);
+        autoSaver.setMaxDelay(5000);
+        assertEquals(300, autoSaver.getDelay());
+        assertEquals(5000, autoSaver.getMaxDelay());
+        autoSaver.watch(appList);
+        testApp.setCategory("University");
+        testApp.getRequirement("Transcript").changeStatus(true);
+        appList.addApplication(new Application("SFU"));
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+
+        awaitJournal();
+        assertNull(autoSaver.getFailure());
+        ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+        assertEquals(2, loaded.getApplicationList().size());
+        assertEquals("University", loaded.searchByName("UBC").getCategory());
+        assertTrue(loaded.searchByName("UBC").getRequirement("Transcript").getStatus());
+    }
+
+    @Test
+    void testPauseKeepsChangesUntilResumed() throws IOException, InterruptedException {
+        autoSaver.setDelay(0);
+        autoSaver.watch(appList);
+        autoSaver.pause();
+        testApp.setCategory("University");
+        Thread.sleep(200);
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+
+        autoSaver.resume();
+        awaitJournal();
+        assertEquals("University", new ApplicationStore(SOURCE, JOURNAL).load().searchByName("UBC").getCategory());
+    }
+
+    @Test
+    void testIgnoresOtherLists() throws IOException, InterruptedException {
+        autoSaver.setDelay(0);
+        autoSaver.watch(appList);
+        Application other = new Application("SFU");
+        new ApplicationList().addApplication(other);
+        other.setCategory("College");
+        Thread.sleep(200);
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+
+        autoSaver.watch(null);
+        testApp.setCategory("University");
+        Thread.sleep(200);
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+    }
+
+    @Test
+    void testCloseSavesWaitingChanges() throws IOException {
+        autoSaver.setDelay(60 * 1000);
+        autoSaver.watch(appList);
+        testApp.setCategory("University");
+        autoSaver.close();
+        store.close();
+        autoSaver = null;
+
+        ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+        assertEquals("University", loaded.searchByName("UBC").getCategory());
+    }
+
+    @Test
+    void testSaveInBackground() throws IOException, InterruptedException, ExecutionException {
+        autoSaver.setDelay(60 * 1000);
+        autoSaver.watch(appList);
+        testApp.setCategory("University");
+        autoSaver.saveInBackground().get();
+        assertTrue(Files.size(Paths.get(JOURNAL)) > 0);
+        testApp.setCategory("College");
+
+        autoSaver.close();
+        store.close();
+        autoSaver = null;
+        ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+        assertEquals("College", loaded.searchByName("UBC").getCategory());
+    }
+
+    @Test
+    void testFailedSaveKeepsChangesWaiting() throws IOException, InterruptedException {
+        ApplicationStore failing = new ApplicationStore("./data/noSuchDirectory/testAutoSaver.json",
+                "./data/noSuchDirectory/testAutoSaver.journal");
+        AutoSaver failingSaver = new AutoSaver(failing, Runnable::run);
+        failingSaver.setDelay(0);
+        failingSaver.watch(appList);
+        testApp.setCategory("University");
+        for (int i = 0; i < 100 && failingSaver.getFailure() == null; i++) {
+            Thread.sleep(50);
+        }
+        assertNotNull(failingSaver.getFailure());
+        try {
+            failingSaver.saveInBackground().get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        try {
+            failingSaver.saveNow();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+        try {
+            failingSaver.close();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+        failing.close();
+    }
+
+    // EFFECTS: waits up to five seconds for the journal to be written out
+    private void awaitJournal() throws IOException, InterruptedException {
+        for (int i = 0; i < 100 && Files.size(Paths.get(JOURNAL)) == 0; i++) {
+            Thread.sleep(50);
+        }
+        assertTrue(Files.size(Paths.get(JOURNAL)) > 0);
+    }
+}
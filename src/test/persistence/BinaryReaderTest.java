@@ -0,0 +1,271 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import model.Requirement.DocumentState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryReaderTest {
+    private static final Path BINARY = Paths.get("./data/testBinaryApplicationList.bin");
+    private static final String JOURNAL = "./data/testBinaryApplicationList.journal";
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        runAfter();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(BINARY);
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        Files.deleteIfExists(Paths.get(JOURNAL + ".old"));
+    }
+
+    @Test
+    void testRoundTripWithJsonFiles() throws IOException {
+        for (String json : new String[]{"./data/testReaderGeneralApplicationList.json",
+                "./data/testReaderStreamingApplicationList.json", "./data/testReaderEmptyApplicationList.json"}) {
+            JsonReader jsonReader = new JsonReader(json);
+            jsonReader.setLazyDocuments(true);
+            ApplicationList original = jsonReader.read();
+            write(original, 0, false);
+
+            BinaryReader reader = new BinaryReader(BINARY.toString());
+            reader.setLazyDocuments(true);
+            assertTrue(reader.isLazyDocuments());
+            ApplicationList loaded = reader.read();
+            assertTrue(original.toJson().similar(loaded.toJson()), json);
+        }
+    }
+
+    @Test
+    void testRoundTripFields() throws IOException, ParseException {
+        ApplicationList appList = new ApplicationList();
+        Application typed = new Application("Universit\u00e9 de Montr\u00e9al \uD83C\uDF93");
+        typed.setCategory("Grad");
+        typed.setDeadline("1-1-30 9:05 PM");
+        Requirement transcript = new Requirement("Transcript");
+        transcript.changeStatus(true);
+        transcript.uploadDocument("./data/testFile");
+        typed.addRequirement(transcript);
+        typed.addRequirement(new Requirement("Essay"));
+        appList.addApplication(typed);
+        Application old = new Application("Old");
+        old.setCategory("Grad");
+        old.setDeadline(new Date(-1234567890123L));
+        old.setStatus(true);
+        old.setProgress(-3);
+        appList.addApplication(old);
+        appList.addApplication(new Application("Grad"));
+        write(appList, 42, true);
+
+        BinaryReader reader = new BinaryReader(BINARY.toString());
+        ApplicationList loaded = reader.read();
+        assertEquals(42, reader.getJournalSequence());
+        assertEquals(3, loaded.getApplicationList().size());
+        Application loadedTyped = loaded.getApplicationList().get(0);
+        assertEquals(typed.getName(), loadedTyped.getName());
+        assertEquals("1-1-30 9:05 PM", loadedTyped.getStrDeadline());
+        assertEquals(typed.getDeadlineTime(), loadedTyped.getDeadlineTime());
+        assertEquals(new File("./data/testFile"), loadedTyped.getRequirement("Transcript").getUploadedDocument());
+        assertTrue(loadedTyped.getRequirement("Transcript").getStatus());
+        assertNull(loadedTyped.getRequirement("Essay").getUploadedDocument());
+        assertEquals(50, loadedTyped.getProgress());
+        Application loadedOld = loaded.getApplicationList().get(1);
+        assertEquals(-1234567890123L, loadedOld.getDeadlineTime());
+        assertEquals(old.getStrDeadline(), loadedOld.getStrDeadline());
+        assertTrue(loadedOld.getStatus());
+        assertEquals(-3, loadedOld.getProgress());
+        assertFalse(loaded.getApplicationList().get(2).hasDeadline());
+        assertEquals("", loaded.getApplicationList().get(2).getCategory());
+    }
+
+    @Test
+    void testMappedRead() throws IOException {
+        ApplicationList original = new ApplicationList();
+        for (int i = 0; i < 300; i++) {
+            Application app = new Application("Universit\u00e9 " + i);
+            app.setCategory(i % 2 == 0 ? "Grad" : "Job");
+            Requirement transcript = new Requirement("Transcript");
+            transcript.recordDocument("./data/testFile");
+            transcript.changeStatus(i % 3 == 0);
+            app.addRequirement(transcript);
+            app.addRequirement(new Requirement("Essay " + i));
+            original.addApplication(app);
+        }
+        BinaryWriter writer = new BinaryWriter(BINARY.toString());
+        writer.setAtomic(true);
+        writer.setChecksum(true);
+        writer.open();
+        writer.write(original);
+        writer.close();
+
+        BinaryReader reader = new BinaryReader(BINARY.toString());
+        reader.setMapped(true);
+        reader.setLazyDocuments(true);
+        DocumentValidator validator = new DocumentValidator();
+        reader.setDocumentValidator(validator);
+        List<Integer> chunks = new ArrayList<Integer>();
+        reader.setLoadListener((applications, bytesRead, totalBytes) -> chunks.add(applications.size()));
+        assertTrue(reader.isMapped());
+        ApplicationList loaded = reader.read();
+        assertEquals(Arrays.asList(BinaryReader.CHUNK_SIZE, 300 - BinaryReader.CHUNK_SIZE), chunks);
+        Application last = loaded.getApplicationList().get(299);
+        assertFalse(last.hasLoadedRequirements());
+        assertEquals("Job", last.getCategory());
+        assertEquals(0, last.getProgress());
+
+        writer.setJournalSequence(7);
+        writer.open();
+        writer.write(new ApplicationList());
+        writer.close();
+        assertEquals(new File("./data/testFile"), last.getRequirement("Transcript").getUploadedDocument());
+        assertTrue(last.hasLoadedRequirements());
+        validator.await();
+        assertEquals(DocumentState.AVAILABLE, last.getRequirement("Transcript").getDocumentState());
+        assertTrue(original.toJson().similar(loaded.toJson()));
+    }
+
+    @Test
+    void testMappedReadOfCorruptedRequirements() throws IOException {
+        ApplicationList appList = new ApplicationList();
+        Application app = new Application("Capilano");
+        app.addRequirement(new Requirement("Transcript"));
+        appList.addApplication(app);
+        write(appList, 0, false);
+        byte[] written = Files.readAllBytes(BINARY);
+        written[new String(written, StandardCharsets.ISO_8859_1).indexOf("Transcript") - 1] = 0x7F;
+        Files.write(BINARY, written);
+
+        BinaryReader reader = new BinaryReader(BINARY.toString());
+        reader.setMapped(true);
+        Application loaded = reader.read().getApplicationList().get(0);
+        try {
+            loaded.getRequiredDocuments();
+            fail("UncheckedIOException expected");
+        } catch (UncheckedIOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testDetectFormat() throws IOException {
+        write(new ApplicationList(), 0, false);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(BINARY.toString()));
+        assertEquals(StorageFormat.JSON, StorageFormat.detect("./data/testReaderGeneralApplicationList.json"));
+        try {
+            new BinaryReader("./data/testReaderGeneralApplicationList.json").read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testCorruptedAndTruncatedFiles() throws IOException {
+        ApplicationList appList = new ApplicationList();
+        appList.addApplication(new Application("Capilano"));
+        write(appList, 0, true);
+        byte[] written = Files.readAllBytes(BINARY);
+
+        byte[] corrupted = written.clone();
+        corrupted[new String(written, StandardCharsets.ISO_8859_1).indexOf("Capilano")] = 'K';
+        Files.write(BINARY, corrupted);
+        try {
+            new BinaryReader(BINARY.toString()).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+
+        Files.write(BINARY, Arrays.copyOf(written, 10));
+        try {
+            new BinaryReader(BINARY.toString()).read();
+            fail("EOFException expected");
+        } catch (EOFException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testOtherVersionsAreRejected() throws IOException {
+        ApplicationList appList = new ApplicationList();
+        appList.addApplication(new Application("Capilano"));
+        write(appList, 0, false);
+        byte[] written = Files.readAllBytes(BINARY);
+        for (byte version : new byte[] {1, 3}) {
+            written[BinaryWriter.MAGIC.length] = version;
+            Files.write(BINARY, written);
+            for (boolean mapped : new boolean[] {false, true}) {
+                BinaryReader reader = new BinaryReader(BINARY.toString());
+                reader.setMapped(mapped);
+                try {
+                    reader.read();
+                    fail("IOException expected");
+                } catch (IOException e) {
+                    assertTrue(e.getMessage().startsWith("Unsupported binary format version " + version));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testStoreSwitchesFormat() throws IOException {
+        ApplicationList appList = new ApplicationList();
+        Application app = new Application("UBC");
+        app.addRequirement(new Requirement("Transcript"));
+        appList.addApplication(app);
+        ApplicationStore store = new ApplicationStore(BINARY.toString(), JOURNAL);
+        assertEquals(StorageFormat.JSON, store.getFormat());
+        store.save(appList);
+        assertEquals(StorageFormat.JSON, StorageFormat.detect(BINARY.toString()));
+
+        store.setFormat(StorageFormat.BINARY);
+        app.setCategory("University");
+        store.save(appList);
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(BINARY.toString()));
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+
+        store = new ApplicationStore(BINARY.toString(), JOURNAL);
+        store.setFormat(StorageFormat.BINARY);
+        store.getCompactor().setMaxJournalRecords(0);
+        ApplicationList loaded = store.load();
+        loaded.getApplicationList().get(0).getRequirement("Transcript").changeStatus(true);
+        store.save(loaded);
+        store.close();
+        assertEquals(StorageFormat.BINARY, StorageFormat.detect(BINARY.toString()));
+
+        loaded = new ApplicationStore(BINARY.toString(), JOURNAL).load();
+        assertEquals("University", loaded.getApplicationList().get(0).getCategory());
+        assertTrue(loaded.getApplicationList().get(0).getRequirement("Transcript").getStatus());
+    }
+
+    // EFFECTS: writes appList to the binary test file
+    private void write(ApplicationList appList, long journalSequence, boolean checksum) throws IOException {
+        BinaryWriter writer = new BinaryWriter(BINARY.toString());
+        writer.setChecksum(checksum);
+        writer.setJournalSequence(journalSequence);
+        writer.open();
+        writer.write(appList);
+        writer.close();
+    }
+}
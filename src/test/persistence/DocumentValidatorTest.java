@@ -0,0 +1,88 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import model.Requirement.DocumentState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentValidatorTest {
+    private static final Path TEMP_DOCUMENT = Paths.get("./data/testValidatorDocument");
+    private DocumentValidator validator;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.deleteIfExists(TEMP_DOCUMENT);
+        validator = new DocumentValidator();
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(TEMP_DOCUMENT);
+    }
+
+    @Test
+    void testLazyReadThenValidate() throws IOException {
+        JsonReader reader = new JsonReader("./data/testReaderGeneralApplicationList.json");
+        reader.setLazyDocuments(true);
+        assertTrue(reader.isLazyDocuments());
+        ApplicationList appList = reader.read();
+        List<Requirement> requirements = appList.getApplicationList().get(0).getRequiredDocuments();
+        assertEquals(new File("./data/testFile"), requirements.get(0).getUploadedDocument());
+        assertEquals(DocumentState.UNCHECKED, requirements.get(0).getDocumentState());
+
+        Application app = new Application("MIT");
+        Requirement missing = new Requirement("Essay");
+        missing.recordDocument("./data/noSuchFile");
+        app.addRequirement(missing);
+        appList.addApplication(app);
+
+        AtomicInteger batches = new AtomicInteger();
+        validator.setListener(batches::incrementAndGet);
+        validator.validate(appList);
+        validator.await();
+        assertFalse(validator.isRunning());
+        assertEquals(1, batches.get());
+        assertEquals(DocumentState.AVAILABLE, requirements.get(0).getDocumentState());
+        assertEquals(DocumentState.AVAILABLE, requirements.get(1).getDocumentState());
+        assertTrue(missing.isDocumentMissing());
+    }
+
+    @Test
+    void testCachedResults() throws IOException {
+        Files.write(TEMP_DOCUMENT, new byte[]{1});
+        assertEquals(DocumentState.AVAILABLE, validator.check(TEMP_DOCUMENT.toFile()));
+        Files.delete(TEMP_DOCUMENT);
+        assertEquals(DocumentState.AVAILABLE, validator.check(TEMP_DOCUMENT.toFile()));
+        validator.clearCache();
+        assertEquals(DocumentState.MISSING, validator.check(TEMP_DOCUMENT.toFile()));
+
+        Files.write(TEMP_DOCUMENT, new byte[]{1});
+        validator.setMaxAge(-1);
+        assertEquals(-1, validator.getMaxAge());
+        assertEquals(DocumentState.AVAILABLE, validator.check(TEMP_DOCUMENT.toFile()));
+    }
+
+    @Test
+    void testDocumentReplacedWhileChecking() throws IOException {
+        Requirement requirement = new Requirement("Transcript");
+        requirement.recordDocument("./data/noSuchFile");
+        validator.validate(List.of(requirement));
+        requirement.recordDocument("./data/testFile2");
+        validator.await();
+        assertNotEquals(DocumentState.MISSING, requirement.getDocumentState());
+        assertEquals(new File("./data/testFile2"), requirement.getUploadedDocument());
+    }
+}
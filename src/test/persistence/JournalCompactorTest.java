@@ -0,0 +1,99 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalCompactorTest {
+    private static final String SOURCE = "./data/testCompactorApplicationList.json";
+    private static final String JOURNAL = "./data/testCompactorApplicationList.journal";
+    private static final String SEGMENT = JOURNAL + ".old";
+    private ApplicationList appList;
+    private Application testApp;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        Files.deleteIfExists(Paths.get(SEGMENT));
+        appList = new ApplicationList();
+        testApp = new Application("UBC");
+        testApp.setCategory("University");
+        testApp.addRequirement(new Requirement("Transcript"));
+        appList.addApplication(testApp);
+    }
+
+    @Test
+    void testShouldCompact() {
+        JournalCompactor compactor = new JournalCompactor(100, 10);
+        assertFalse(compactor.shouldCompact(100, 10));
+        assertTrue(compactor.shouldCompact(101, 0));
+        assertTrue(compactor.shouldCompact(0, 11));
+        compactor.setMaxJournalRecords(20);
+        assertFalse(compactor.shouldCompact(0, 11));
+        assertEquals(20, compactor.getMaxJournalRecords());
+        assertEquals(100, compactor.getMaxJournalBytes());
+    }
+
+    @Test
+    void testCompactionFoldsJournalIntoFullSave() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.getCompactor().setMaxJournalRecords(1);
+            store.save(appList);
+            testApp.setCategory("College");
+            testApp.getRequirement("Transcript").changeStatus(true);
+            store.save(appList);
+            store.awaitCompaction();
+
+            assertFalse(Files.exists(Paths.get(SEGMENT)));
+            assertEquals(0, Files.size(Paths.get(JOURNAL)));
+            JsonReader reader = new JsonReader(SOURCE);
+            ApplicationList saved = reader.read();
+            assertEquals(2, reader.getJournalSequence());
+            assertEquals("College", saved.searchByName("UBC").getCategory());
+            assertTrue(saved.searchByName("UBC").getRequirement("Transcript").getStatus());
+
+            testApp.setCategory("Polytechnic");
+            store.save(appList);
+            store.close();
+            ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals("Polytechnic", loaded.searchByName("UBC").getCategory());
+            assertEquals(100, loaded.searchByName("UBC").getProgress());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testLeftoverSegmentIsReplayedAndFolded() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            testApp.setCategory("College");
+            store.save(appList);
+            store.close();
+            Files.move(Paths.get(JOURNAL), Paths.get(SEGMENT));
+
+            store = new ApplicationStore(SOURCE, JOURNAL);
+            ApplicationList loaded = store.load();
+            assertEquals("College", loaded.searchByName("UBC").getCategory());
+            loaded.searchByName("UBC").setCategory("Polytechnic");
+            store.save(loaded);
+            store.close();
+
+            assertFalse(Files.exists(Paths.get(SEGMENT)));
+            loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals("Polytechnic", loaded.searchByName("UBC").getCategory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Event;
+import model.EventLog;
+import model.EventType;
+import model.Requirement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    private static final String SOURCE = "./data/testJournalApplicationList.json";
+    private static final String JOURNAL = "./data/testJournalApplicationList.journal";
+    private ApplicationList appList;
+    private Application testApp;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        Files.deleteIfExists(Paths.get(JOURNAL));
+        appList = new ApplicationList();
+        testApp = new Application("UBC");
+        testApp.setCategory("University");
+        testApp.addRequirement(new Requirement("Transcript"));
+        appList.addApplication(testApp);
+    }
+
+    @Test
+    void testSaveOnlyFlushesJournal() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            String snapshot = new String(Files.readAllBytes(Paths.get(SOURCE)), StandardCharsets.UTF_8);
+            assertEquals(0, Files.size(Paths.get(JOURNAL)));
+
+            Application otherApp = new Application("SFU");
+            appList.addApplication(otherApp);
+            otherApp.addRequirement(new Requirement("Essay"));
+            testApp.setCategory("College");
+            testApp.getRequirement("Transcript").changeStatus(true);
+            testApp.addRequirement(new Requirement("Resume"));
+            testApp.removeRequirement("Resume");
+            store.save(appList);
+            store.close();
+
+            assertEquals(snapshot, new String(Files.readAllBytes(Paths.get(SOURCE)), StandardCharsets.UTF_8));
+            assertTrue(Files.size(Paths.get(JOURNAL)) > 0);
+
+            ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals(2, loaded.getApplicationList().size());
+            Application loadedApp = loaded.searchByName("UBC");
+            assertEquals("College", loadedApp.getCategory());
+            assertTrue(loadedApp.getRequirement("Transcript").getStatus());
+            assertNull(loadedApp.getRequirement("Resume"));
+            assertEquals(100, loadedApp.getProgress());
+            assertNotNull(loaded.searchByName("SFU").getRequirement("Essay"));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testPreparedSaveWritesListAsCaptured() throws IOException {
+        Files.deleteIfExists(Paths.get(SOURCE));
+        ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+        ApplicationStore.PendingSave pending = store.prepareSave(appList);
+        testApp.setCategory("College");
+        assertFalse(Files.exists(Paths.get(SOURCE)));
+        pending.complete();
+        assertEquals("University", new JsonReader(SOURCE).read().searchByName("UBC").getCategory());
+
+        pending = store.prepareSave(appList);
+        testApp.setCategory("Polytechnic");
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+        pending.complete();
+        store.close();
+        assertEquals("Polytechnic", new ApplicationStore(SOURCE, JOURNAL).load().searchByName("UBC").getCategory());
+    }
+
+    @Test
+    void testAbandonedLoadKeepsLoadedList() throws IOException {
+        ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+        store.save(appList);
+        store.close();
+        store = new ApplicationStore(SOURCE, JOURNAL);
+        ApplicationList loaded = store.load();
+        Application loadedApp = loaded.searchByName("UBC");
+        loadedApp.setCategory("College");
+
+        Thread.currentThread().interrupt();
+        try {
+            store.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } finally {
+            Thread.interrupted();
+        }
+        store.read().abandon();
+
+        assertFalse(loadedApp.hasLoadedRequirements());
+        assertNotNull(loadedApp.getRequirement("Transcript"));
+        loadedApp.getRequirement("Transcript").changeStatus(true);
+        store.save(loaded);
+        store.close();
+        loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+        assertEquals("College", loaded.searchByName("UBC").getCategory());
+        assertTrue(loaded.searchByName("UBC").getRequirement("Transcript").getStatus());
+    }
+
+    @Test
+    void testReplayKeepsPositionOfAddedApplication() throws IOException {
+        ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+        store.save(appList);
+        appList.addApplication(new Application("SFU"), 0);
+        store.save(appList);
+        store.close();
+
+        ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+        assertEquals("SFU", loaded.getApplicationList().get(0).getName());
+        assertEquals("UBC", loaded.getApplicationList().get(1).getName());
+    }
+
+    @Test
+    void testUnsavedChangesAreDropped() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            appList.removeApplication(testApp);
+            store.close();
+
+            ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals(1, loaded.getApplicationList().size());
+            assertEquals("University", loaded.searchByName("UBC").getCategory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testChangesToOtherListsAreNotJournaled() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            ApplicationList otherList = new ApplicationList();
+            Application otherApp = new Application("UBC");
+            otherList.addApplication(otherApp);
+            otherApp.setCategory("College");
+            appList.removeApplication(otherApp);
+            store.save(appList);
+            store.close();
+
+            assertEquals(0, Files.size(Paths.get(JOURNAL)));
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testEditedDeadlineIsJournaledButLoadedOneIsNot() throws ParseException {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            testApp.editDeadline("01-02-24 10:00 AM");
+            store.save(appList);
+            store.close();
+            assertTrue(Files.size(Paths.get(JOURNAL)) > 0);
+
+            EventLog.getInstance().clear();
+            ApplicationList loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals("01-02-24 10:00 AM", loaded.searchByName("UBC").getStrDeadline());
+            for (Event event : EventLog.getInstance()) {
+                assertNotEquals(EventType.DEADLINE_SET, event.getType());
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testTornRecordIsSkipped() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            testApp.setCategory("College");
+            store.save(appList);
+            store.close();
+            Files.write(Paths.get(JOURNAL), "{\"seq\":2,\"op\":\"CATEGORY_S".getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.APPEND);
+
+            store = new ApplicationStore(SOURCE, JOURNAL);
+            ApplicationList loaded = store.load();
+            assertEquals("College", loaded.searchByName("UBC").getCategory());
+            loaded.searchByName("UBC").setCategory("Polytechnic");
+            store.save(loaded);
+            store.close();
+
+            loaded = new ApplicationStore(SOURCE, JOURNAL).load();
+            assertEquals("Polytechnic", loaded.searchByName("UBC").getCategory());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testReplayNullCategoryAndUnknownChange() throws IOException {
+        ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+        store.save(appList);
+        testApp.setCategory(null);
+        store.save(appList);
+        store.close();
+        Files.write(Paths.get(JOURNAL), ("{\"seq\":2,\"op\":\"FOLDER_SET\",\"name\":\"UBC\"}\n"
+                + "{\"seq\":3,\"op\":\"STATUS_CHANGED\",\"name\":\"UBC\",\"requirement\":\"Transcript\","
+                + "\"status\":true}\n").getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        Journal journal = new Journal(JOURNAL);
+        ApplicationList replayed = new JsonReader(SOURCE).read();
+        assertEquals(2, journal.replay(replayed, 0));
+        assertNull(replayed.searchByName("UBC").getCategory());
+        assertTrue(replayed.searchByName("UBC").getRequirement("Transcript").getStatus());
+        assertEquals(3, journal.getSequence());
+    }
+
+    @Test
+    void testReplaySkipsRecordsInSnapshot() {
+        try {
+            ApplicationStore store = new ApplicationStore(SOURCE, JOURNAL);
+            store.save(appList);
+            testApp.setCategory("College");
+            testApp.setCategory("Polytechnic");
+            store.save(appList);
+            store.close();
+
+            Journal journal = new Journal(JOURNAL);
+            ApplicationList replayed = new JsonReader(SOURCE).read();
+            assertEquals(1, journal.replay(replayed, 1));
+            assertEquals("Polytechnic", replayed.searchByName("UBC").getCategory());
+            assertEquals(2, journal.getSequence());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package persistence;
 
 
+import exceptions.ApplicationAlreadyExistsException;
 import model.Application;
 import model.ApplicationList;
 import model.Requirement;
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -79,4 +86,225 @@ class JsonReaderTest {
             fail("Couldn't read from file");
         }
     }
+
+    @Test
+    void testReaderStreamingApplicationList() {
+        JsonReader reader = new JsonReader("./data/testReaderStreamingApplicationList.json");
+        try {
+            ApplicationList appList = reader.read();
+            List<Application> applications = appList.getApplicationList();
+            assertEquals(2, applications.size());
+            assertEquals("MIT", applications.get(0).getName());
+            assertEquals("Grad\tSchool", applications.get(0).getCategory());
+            assertEquals("Statement\nof purpose", applications.get(0).getRequiredDocuments().get(0).getName());
+            assertTrue(applications.get(0).getStatus());
+            assertEquals("TU Delft", applications.get(1).getName());
+            assertTrue(applications.get(1).getRequiredDocuments().isEmpty());
+            assertEquals(2, appList.countByCategory("Grad\tSchool"));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderParallelApplicationList() throws IOException, ParseException {
+        Path source = Files.createTempFile("testReaderParallelApplicationList", ".json");
+        try {
+            ApplicationList original = writeParallelApplicationList(source);
+            JsonReader reader = new JsonReader(source.toString());
+            reader.setParallelism(4);
+            assertEquals(4, reader.getParallelism());
+            List<Application> applications = reader.read().getApplicationList();
+            assertEquals(1000, applications.size());
+            for (int i = 0; i < 1000; i++) {
+                Application expected = original.getApplicationList().get(i);
+                assertEquals(expected.toJson().toString(), applications.get(i).toJson().toString());
+            }
+        } finally {
+            Files.delete(source);
+        }
+    }
+
+    @Test
+    void testReaderReportsProgress() throws IOException, ParseException {
+        Path source = Files.createTempFile("testReaderParallelApplicationList", ".json");
+        try {
+            writeParallelApplicationList(source);
+            long size = Files.size(source);
+            for (int parallelism : new int[]{1, 4}) {
+                List<Application> reported = new ArrayList<Application>();
+                long[] lastBytes = {0};
+                JsonReader reader = new JsonReader(source.toString());
+                reader.setParallelism(parallelism);
+                reader.setLoadListener((applications, bytesRead, totalBytes) -> {
+                    assertTrue(applications.size() <= ParallelApplicationLoader.CHUNK_SIZE);
+                    assertTrue(bytesRead >= lastBytes[0] && bytesRead <= totalBytes);
+                    assertEquals(size, totalBytes);
+                    lastBytes[0] = bytesRead;
+                    reported.addAll(applications);
+                });
+                assertEquals(reader.read().getApplicationList(), reported);
+            }
+            assertInterruptedReadFails(source);
+        } finally {
+            Files.delete(source);
+        }
+    }
+
+    // EFFECTS: checks that reading source on an interrupted thread throws IOException
+    private void assertInterruptedReadFails(Path source) {
+        Thread.currentThread().interrupt();
+        try {
+            new JsonReader(source.toString()).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void testReaderParallelDuplicateApplication() throws IOException {
+        JSONArray jsonApplications = new JSONArray();
+        for (int i = 0; i < 700; i++) {
+            jsonApplications.put(new Application("App " + (i == 600 ? 3 : i)).toJson());
+        }
+        Path path = Paths.get("./data/testReaderParallelDuplicateApplicationList.json");
+        Files.write(path, new JSONObject().put("applications", jsonApplications).toString()
+                .getBytes(StandardCharsets.UTF_8));
+        JsonReader reader = new JsonReader(path.toString());
+        reader.setParallelism(4);
+        try {
+            reader.read();
+            fail("ApplicationAlreadyExistsException expected");
+        } catch (ApplicationAlreadyExistsException e) {
+            // pass
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    void testReaderLazyRequirements() throws IOException {
+        ApplicationList original = new ApplicationList();
+        for (int i = 0; i < 600; i++) {
+            Application app = new Application("Universit\u00e9 " + i + " \uD83C\uDF93");
+            app.setCategory(i % 3 == 0 ? "Grad\tSchool" : "Job");
+            for (int r = 0; r < i % 4; r++) {
+                Requirement requirement = new Requirement("Lettre de motivation " + r + " \u2014 \"draft\" [1]");
+                app.addRequirement(requirement);
+                requirement.changeStatus(r % 2 == 0);
+            }
+            original.addApplication(app);
+        }
+        String path = "./data/testReaderLazyApplicationList.json";
+        JsonWriter writer = new JsonWriter(path);
+        writer.setAtomic(true);
+        writer.setChecksum(true);
+        writer.open();
+        writer.write(original);
+        writer.close();
+
+        JsonReader reader = new JsonReader(path);
+        reader.setLazyRequirements(true);
+        reader.setParallelism(4);
+        assertTrue(reader.isLazyRequirements());
+        List<Application> applications = reader.read().getApplicationList();
+        assertTrue(applications.get(0).hasLoadedRequirements());
+        assertFalse(applications.get(1).hasLoadedRequirements());
+        assertEquals(50, applications.get(2).getProgress());
+
+        writer = new JsonWriter(path);
+        writer.setAtomic(true);
+        writer.open();
+        writer.write(new ApplicationList());
+        writer.close();
+        for (int i = 0; i < 600; i++) {
+            assertEquals(original.getApplicationList().get(i).toJson().toString(),
+                    applications.get(i).toJson().toString());
+            assertTrue(applications.get(i).hasLoadedRequirements());
+        }
+        assertSame(applications.get(5), applications.get(5).getRequiredDocuments().get(0).getApplication());
+    }
+
+    @Test
+    void testFailedReadKeepsRequirementFileOpen() throws IOException {
+        ApplicationList original = new ApplicationList();
+        Application app = new Application("UBC");
+        app.addRequirement(new Requirement("Transcript"));
+        original.addApplication(app);
+        Path source = Files.createTempFile("testReaderFailedApplicationList", ".json");
+        JsonWriter writer = new JsonWriter(source.toString());
+        writer.open();
+        writer.write(original);
+        writer.close();
+
+        JsonReader reader = new JsonReader(source.toString());
+        reader.setLazyRequirements(true);
+        Application first = reader.read().searchByName("UBC");
+        Files.delete(source);
+        try {
+            reader.read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+        assertEquals("Transcript", first.getRequiredDocuments().get(0).getName());
+        reader.close();
+    }
+
+    @Test
+    void testReaderCloseReleasesRequirementFile() throws IOException {
+        ApplicationList original = new ApplicationList();
+        Application app = new Application("UBC");
+        app.addRequirement(new Requirement("Transcript"));
+        original.addApplication(app);
+        Path source = Files.createTempFile("testReaderCloseApplicationList", ".json");
+        JsonWriter writer = new JsonWriter(source.toString());
+        writer.open();
+        writer.write(original);
+        writer.close();
+
+        JsonReader reader = new JsonReader(source.toString());
+        reader.setLazyRequirements(true);
+        Application first = reader.read().searchByName("UBC");
+        Application second = reader.read().searchByName("UBC");
+        reader.close();
+        Files.delete(source);
+        assertFalse(first.hasLoadedRequirements());
+        assertFalse(second.hasLoadedRequirements());
+        try {
+            second.getRequiredDocuments();
+            fail("UncheckedIOException expected");
+        } catch (UncheckedIOException e) {
+            // pass
+        }
+        try {
+            first.getRequiredDocuments();
+            fail("UncheckedIOException expected");
+        } catch (UncheckedIOException e) {
+            // pass
+        }
+    }
+
+    // EFFECTS: writes 1000 applications with a category, deadline and uploaded requirement each to source,
+    // enough to be built in several chunks, and returns them
+    private ApplicationList writeParallelApplicationList(Path source) throws IOException, ParseException {
+        ApplicationList original = new ApplicationList();
+        for (int i = 0; i < 1000; i++) {
+            Application app = new Application("App " + i);
+            app.setCategory(i % 2 == 0 ? "Grad" : "Job");
+            app.setDeadline(String.format("%02d-%02d-23 11:59 AM", i % 28 + 1, i % 12 + 1));
+            Requirement requirement = new Requirement("Transcript");
+            app.addRequirement(requirement);
+            requirement.uploadDocument("./data/testFile");
+            original.addApplication(app);
+        }
+        JsonWriter writer = new JsonWriter(source.toString());
+        writer.open();
+        writer.write(original);
+        writer.close();
+        return original;
+    }
 }
@@ -7,12 +7,18 @@ import model.Requirement;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.text.ParseException;
 import java.util.List;
+import java.util.zip.Deflater;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class JsonWriterTest {
+    private static final int TAB = 4;
 
     @Test
     void testWriterInvalidFile() {
@@ -85,4 +91,179 @@ class JsonWriterTest {
             fail("Exception should not have been thrown");
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testWriterSameLayoutAsJsonObject() {
+        try {
+            ApplicationList appList = new ApplicationList();
+            for (int i = 0; i < 3; i++) {
+                String path = "./data/testWriterLayoutApplicationList.json";
+                JsonWriter writer = new JsonWriter(path);
+                writer.open();
+                writer.write(appList);
+                writer.close();
+                assertEquals(appList.toJson().toString(4),
+                        new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8));
+
+                Application app = new Application("App " + i);
+                app.addRequirement(new Requirement("Document " + i));
+                appList.addApplication(app);
+            }
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testFailedSaveLeavesNoTemporaryFile() throws IOException {
+        String path = "./data/testWriterFailedApplicationList.json";
+        ApplicationList appList = new ApplicationList();
+        Application testApp = new Application("Douglas");
+        testApp.setRequirementLoader(() -> {
+            throw new UncheckedIOException(new IOException("Requirements cannot be read"));
+        });
+        appList.addApplication(testApp);
+        for (StorageFormat format : new StorageFormat[] {StorageFormat.JSON, StorageFormat.BINARY}) {
+            try {
+                format.save(path, appList, 0);
+                fail("UncheckedIOException expected");
+            } catch (UncheckedIOException e) {
+                // pass
+            }
+            assertFalse(Files.exists(Paths.get(path + ".tmp")));
+            assertFalse(Files.exists(Paths.get(path)));
+        }
+    }
+
+    @Test
+    void testWriterAtomicWithChecksum() {
+        try {
+            String path = "./data/testWriterAtomicApplicationList.json";
+            ApplicationList appList = new ApplicationList();
+            Application testApp = new Application("Douglas");
+            testApp.addRequirement(new Requirement("Transcript"));
+            appList.addApplication(testApp);
+
+            JsonWriter writer = new JsonWriter(path);
+            writer.setAtomic(true);
+            writer.setChecksum(true);
+            writer.open();
+            writer.write(appList);
+            assertTrue(Files.exists(Paths.get(path + ".tmp")));
+            writer.close();
+            assertFalse(Files.exists(Paths.get(path + ".tmp")));
+
+            String written = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+            assertTrue(written.startsWith(appList.toJson().toString(4) + "\n#crc32:"));
+
+            List<Application> testAppList = new JsonReader(path).read().getApplicationList();
+            assertEquals(1, testAppList.size());
+            assertEquals("Douglas", testAppList.get(0).getName());
+            assertEquals("Transcript", testAppList.get(0).getRequiredDocuments().get(0).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testReaderChecksumMismatch() throws IOException {
+        String path = "./data/testWriterCorruptedApplicationList.json";
+        ApplicationList appList = new ApplicationList();
+        appList.addApplication(new Application("Capilano"));
+        JsonWriter writer = new JsonWriter(path);
+        writer.setChecksum(true);
+        writer.open();
+        writer.write(appList);
+        writer.close();
+
+        String written = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+        Files.write(Paths.get(path), written.replace("Capilano", "Capilanu").getBytes(StandardCharsets.UTF_8));
+        try {
+            new JsonReader(path).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testWriterCompactApplicationList() {
+        try {
+            ApplicationList appList = new ApplicationList();
+            Application testApp1 = new Application("SFU");
+            testApp1.setCategory("University");
+            testApp1.addRequirement(new Requirement("Transcript"));
+            testApp1.addRequirement(new Requirement("Essay"));
+            appList.addApplication(testApp1);
+            appList.addApplication(new Application("Langara"));
+
+            String path = "./data/testWriterCompactApplicationList.json";
+            JsonWriter writer = new JsonWriter(path);
+            writer.setCompact(true);
+            writer.open();
+            writer.write(appList);
+            writer.close();
+
+            String written = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+            assertEquals(appList.toJson().toString(), written);
+            assertFalse(written.contains("\n"));
+
+            JsonReader reader = new JsonReader(path);
+            List<Application> testAppList = reader.read().getApplicationList();
+            assertEquals(2, testAppList.size());
+            assertEquals("SFU", testAppList.get(0).getName());
+            assertEquals("University", testAppList.get(0).getCategory());
+            assertEquals(2, testAppList.get(0).getRequiredDocuments().size());
+            assertEquals("Langara", testAppList.get(1).getName());
+        } catch (IOException e) {
+            fail("Exception should not have been thrown");
+        }
+    }
+
+    @Test
+    void testWriterCompressedApplicationList() throws IOException {
+        ApplicationList appList = new ApplicationList();
+        for (int i = 0; i < 100; i++) {
+            Application app = new Application("College " + i);
+            app.setCategory("College");
+            app.addRequirement(new Requirement("Transcript"));
+            appList.addApplication(app);
+        }
+        String path = "./data/testWriterCompressedApplicationList.json.gz";
+        JsonWriter writer = new JsonWriter(path);
+        writer.setCompressed(true);
+        writer.setCompressionLevel(Deflater.BEST_COMPRESSION);
+        assertEquals(Deflater.BEST_COMPRESSION, writer.getCompressionLevel());
+        writer.setChecksum(true);
+        writer.open();
+        writer.write(appList);
+        writer.close();
+
+        byte[] written = Files.readAllBytes(Paths.get(path));
+        assertEquals(0x1f, written[0]);
+        assertEquals((byte) 0x8b, written[1]);
+        assertTrue(written.length * 10 < appList.toJson().toString(TAB).length());
+        JsonReader reader = new JsonReader(path);
+        reader.setLazyRequirements(true);
+        ApplicationList loaded = reader.read();
+        assertTrue(appList.toJson().similar(loaded.toJson()));
+
+        written[written.length - ChecksumInputStream.TRAILER_LENGTH - 8] ^= 1;
+        Files.write(Paths.get(path), written);
+        try {
+            new JsonReader(path).read();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        } finally {
+            Files.delete(Paths.get(path));
+        }
+
+        try {
+            writer.setCompressionLevel(10);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // pass
+        }
+    }
+}
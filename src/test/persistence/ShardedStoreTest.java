@@ -0,0 +1,173 @@
+package persistence;
+
+import model.Application;
+import model.ApplicationList;
+import model.Requirement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedStoreTest {
+    private static final Path DIRECTORY = Paths.get("./data/testShardedApplicationList");
+    private static final String SOURCE = "./data/testShardedStoreApplicationList.json";
+    private static final String JOURNAL = "./data/testShardedStoreApplicationList.journal";
+    private ShardedStore store;
+    private ApplicationList appList;
+    private Application ubc;
+    private Application sfu;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        runAfter();
+        store = new ShardedStore(DIRECTORY.toString());
+        appList = new ApplicationList();
+        ubc = new Application("UBC");
+        ubc.addRequirement(new Requirement("Transcript"));
+        sfu = new Application("SFU");
+        sfu.setCategory("Grad");
+        appList.addApplication(ubc);
+        appList.addApplication(sfu);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        deleteDirectory(DIRECTORY);
+        deleteDirectory(Paths.get(StorageFormat.shardDirectory(SOURCE)));
+        Files.deleteIfExists(Paths.get(SOURCE));
+        Files.deleteIfExists(Paths.get(JOURNAL));
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        store.save(appList);
+        assertFalse(ubc.isDirty());
+        assertEquals(DIRECTORY.toString(), store.getDirectory());
+        assertEquals(Arrays.asList("0.json", "1.json", ShardedStore.MANIFEST), files());
+
+        ApplicationList loaded = new ShardedStore(DIRECTORY.toString()).load();
+        assertTrue(appList.toJson().similar(loaded.toJson()));
+        assertFalse(loaded.getApplicationList().get(0).isDirty());
+    }
+
+    @Test
+    void testSaveRewritesOnlyDirtyShards() throws IOException {
+        store.save(appList);
+        byte[] manifest = Files.readAllBytes(DIRECTORY.resolve(ShardedStore.MANIFEST));
+        Files.write(DIRECTORY.resolve("1.json"), new byte[0]);
+
+        byte[] shard = Files.readAllBytes(DIRECTORY.resolve("0.json"));
+        ubc.getRequirement("Transcript").changeStatus(true);
+        store.save(appList);
+        assertFalse(Arrays.equals(shard, Files.readAllBytes(DIRECTORY.resolve("0.json"))));
+        assertEquals(0, Files.size(DIRECTORY.resolve("1.json")));
+        assertArrayEquals(manifest, Files.readAllBytes(DIRECTORY.resolve(ShardedStore.MANIFEST)));
+    }
+
+    @Test
+    void testSaveRewritesManifestWhenApplicationsChange() throws IOException {
+        store.save(appList);
+        ApplicationList loaded = store.load();
+        Application capilano = new Application("Capilano");
+        loaded.addApplication(capilano);
+        loaded.removeApplication(loaded.getApplicationList().get(0));
+        store.save(loaded);
+        assertEquals(Arrays.asList("1.json", "2.json", ShardedStore.MANIFEST), files());
+
+        ApplicationList reloaded = new ShardedStore(DIRECTORY.toString()).load();
+        assertEquals(2, reloaded.getApplicationList().size());
+        assertEquals("SFU", reloaded.getApplicationList().get(0).getName());
+        assertEquals("Grad", reloaded.getApplicationList().get(0).getCategory());
+        assertEquals("Capilano", reloaded.getApplicationList().get(1).getName());
+    }
+
+    @Test
+    void testApplicationStoreSavesShards() throws IOException {
+        Path shards = Paths.get(StorageFormat.shardDirectory(SOURCE));
+        ApplicationStore applicationStore = new ApplicationStore(SOURCE, JOURNAL);
+        applicationStore.save(appList);
+        applicationStore.setFormat(StorageFormat.SHARDED);
+        applicationStore.save(appList);
+        assertFalse(Files.exists(Paths.get(SOURCE)));
+        assertEquals(StorageFormat.SHARDED, StorageFormat.detect(SOURCE));
+
+        Files.write(shards.resolve("1.json"), new byte[0]);
+        ubc.getRequirement("Transcript").changeStatus(true);
+        applicationStore.save(appList);
+        assertEquals(0, Files.size(shards.resolve("1.json")));
+        assertEquals(0, Files.size(Paths.get(JOURNAL)));
+        sfu.setCategory("Job");
+        applicationStore.save(appList);
+        applicationStore.close();
+
+        ApplicationStore reopened = new ApplicationStore(SOURCE, JOURNAL);
+        reopened.setFormat(StorageFormat.SHARDED);
+        ApplicationList loaded = reopened.load();
+        assertTrue(appList.toJson().similar(loaded.toJson()));
+        loaded.searchByName("UBC").setCategory("Grad");
+        reopened.save(loaded);
+        assertEquals("Grad", new ShardedStore(shards.toString()).load().searchByName("UBC").getCategory());
+
+        reopened.setFormat(StorageFormat.JSON);
+        reopened.save(loaded);
+        reopened.close();
+        assertEquals(StorageFormat.JSON, StorageFormat.detect(SOURCE));
+        assertFalse(Files.exists(shards.resolve(ShardedStore.MANIFEST)));
+        assertTrue(loaded.toJson().similar(new ApplicationStore(SOURCE, JOURNAL).load().toJson()));
+    }
+
+    @Test
+    void testSaveRecordsJournalSequence() throws IOException {
+        store.setJournalSequence(7);
+        store.save(appList);
+        ShardedStore reopened = new ShardedStore(DIRECTORY.toString());
+        reopened.load();
+        assertEquals(7, reopened.getJournalSequence());
+
+        ApplicationList other = new ApplicationList();
+        other.addApplication(new Application("Capilano"));
+        new ShardedStore(DIRECTORY.toString()).save(other);
+        assertEquals(Arrays.asList("2.json", ShardedStore.MANIFEST), files());
+        assertEquals("Capilano", reopened.load().getApplicationList().get(0).getName());
+    }
+
+    @Test
+    void testLoadMissingDirectory() {
+        try {
+            store.load();
+            fail("IOException expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    // EFFECTS: deletes the directory and the files in it, if it exists
+    private void deleteDirectory(Path directory) throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    // EFFECTS: returns the names of the files in the test directory, sorted
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(DIRECTORY)) {
+            return files.map(file -> file.getFileName().toString()).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}